@@ -0,0 +1,125 @@
+package com.owr.order_service.benchmark;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.owr.order_service.dto.request.CreateOrderRequest;
+import com.owr.order_service.dto.request.OrderItemRequest;
+import com.owr.order_service.dto.response.OrderResponse;
+import com.owr.order_service.mapper.OrderMapper;
+import com.owr.order_service.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderMappingBenchmark
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:00 PM
+ * Description: JMH benchmarks of the per-request mapping and serialization work of an order.
+ =================================================================================*/
+
+/**
+ * Covers the CPU-bound part of {@code POST /api/orders} and {@code GET /api/orders} for carts of 1-500 items:
+ * - grouping requested quantities per product ({@link OrderMapper#quantityByProductId})
+ * - request to entity mapping ({@link OrderMapper#toEntity})
+ * - total price computation ({@link OrderMapper#totalPrice})
+ * - entity to response mapping ({@link OrderMapper#toResponse})
+ * - Jackson serialization of the {@link OrderResponse}
+ * - all of the above in sequence (order assembly)
+ * *
+ * Run with: mvn -Pbenchmark compile exec:exec
+ * (throughput plus the gc profiler's allocation rate, gc.alloc.rate.norm = bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    /**
+     * Number of line items in the cart; every item is a distinct product, plus some repeated ones.
+     */
+    @Param({"1", "10", "100", "500"})
+    public int items;
+
+    private OrderMapper mapper;
+    private ObjectMapper objectMapper;
+
+    private CreateOrderRequest request;
+    private Map<Long, Double> priceByProductId;
+    private Order order;
+    private OrderResponse response;
+
+    @Setup
+    public void setUp() {
+        // The inventory client is not used by the mapping methods
+        mapper = new OrderMapper(null);
+        // Same Jackson defaults as the Spring Boot ObjectMapper (JavaTimeModule, ISO dates)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<OrderItemRequest> itemRequests = new ArrayList<>(items);
+        priceByProductId = new HashMap<>();
+        for (int i = 0; i < items; i++) {
+            // Every 10th line repeats an earlier product, as carts do
+            long productId = i % 10 == 9 ? i - 1 : i;
+            itemRequests.add(new OrderItemRequest(productId, 1 + i % 5));
+            priceByProductId.put(productId, 9.99 + i);
+        }
+        request = new CreateOrderRequest("customer-1", itemRequests);
+
+        order = mapper.toEntity(request, priceByProductId);
+        order.setId("66b4c9e2f1a2b34c5d6e7f80");
+        response = mapper.toResponse(order);
+    }
+
+    @Benchmark
+    public Map<Long, Integer> quantityByProductId() {
+        return OrderMapper.quantityByProductId(request.items());
+    }
+
+    @Benchmark
+    public Order toEntity() {
+        return mapper.toEntity(request, priceByProductId);
+    }
+
+    @Benchmark
+    public double totalPrice() {
+        return OrderMapper.totalPrice(order.getItems());
+    }
+
+    @Benchmark
+    public OrderResponse toResponse() {
+        return mapper.toResponse(order);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] assembleOrder(Blackhole blackhole) throws Exception {
+        blackhole.consume(OrderMapper.quantityByProductId(request.items()));
+        Order entity = mapper.toEntity(request, priceByProductId);
+        return objectMapper.writeValueAsBytes(mapper.toResponse(entity));
+    }
+}
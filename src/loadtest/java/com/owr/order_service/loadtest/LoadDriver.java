@@ -0,0 +1,261 @@
+package com.owr.order_service.loadtest;
+
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*=================================================================================
+ * Project: order-service
+ * File: LoadDriver
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:40 PM
+ * Description: Closed-loop load generator for the order API with per-workload latency histograms.
+ =================================================================================*/
+
+/**
+ * {@code concurrency} workers each send one request at a time, picking the workload at random by its weight:
+ * - PLACE:  POST  /api/orders with 1..{@code maxItems} random products
+ * - LIST:   GET   /api/orders?limit=50
+ * - STATUS: PATCH /api/orders/{id}/status (Pending -> Processing), each placed order at most once
+ * *
+ * Requests during the warm-up are sent but not recorded. Latencies are recorded in microseconds.
+ */
+@Slf4j
+public class LoadDriver {
+
+    public enum Workload { PLACE, LIST, STATUS }
+
+    /**
+     * @param baseUri     base URI of the running order service
+     * @param token       Bearer token sent with every request
+     * @param concurrency number of concurrent workers
+     * @param warmup      time before recording starts
+     * @param duration    recorded time
+     * @param mix         relative weight per workload
+     * @param productCount number of distinct product IDs to order from
+     * @param maxItems    maximum number of line items per order
+     */
+    public record Settings(
+            URI baseUri,
+            String token,
+            int concurrency,
+            Duration warmup,
+            Duration duration,
+            Map<Workload, Integer> mix,
+            int productCount,
+            int maxItems
+    ) { }
+
+    /**
+     * Outcome of one workload.
+     *
+     * @param histogram latencies of successful requests (µs)
+     * @param errors    number of failed requests (non-2xx or I/O error)
+     */
+    public record WorkloadResult(Histogram histogram, long errors) { }
+
+    /**
+     * @param elapsed   recorded wall-clock time
+     * @param workloads result per workload
+     */
+    public record Result(Duration elapsed, Map<Workload, WorkloadResult> workloads) { }
+
+    /**
+     * Maximum number of placed, not yet updated order IDs kept for status updates.
+     */
+    private static final int MAX_PENDING_ORDERS = 10_000;
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+
+    private final Map<Workload, Histogram> histograms = new EnumMap<>(Workload.class);
+    private final Map<Workload, AtomicLong> errors = new EnumMap<>(Workload.class);
+
+    private final Queue<String> pendingOrderIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private volatile boolean recording;
+
+    public LoadDriver(Settings settings) {
+        this.settings = settings;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Workload workload : Workload.values()) {
+            histograms.put(workload, new ConcurrentHistogram(3));
+            errors.put(workload, new AtomicLong());
+        }
+    }
+
+    /**
+     * Runs the warm-up and the recorded phase.
+     *
+     * @return latency histograms and error counts per workload
+     */
+    public Result run() throws InterruptedException {
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        for (int i = 0; i < settings.concurrency(); i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    execute(pick());
+                }
+            });
+        }
+
+        log.info("Warming up for {}", settings.warmup());
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(counter -> counter.set(0));
+        recording = true;
+        long recordStart = System.nanoTime();
+        log.info("Recording for {} with {} workers", settings.duration(), settings.concurrency());
+
+        workers.shutdown();
+        if (!workers.awaitTermination(settings.duration().toSeconds() + 60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - recordStart);
+
+        Map<Workload, WorkloadResult> results = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            results.put(workload, new WorkloadResult(histograms.get(workload), errors.get(workload).get()));
+        }
+        return new Result(elapsed, results);
+    }
+
+    //=================== Helper Functions ===============================
+
+    private Workload pick() {
+        int total = settings.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Workload, Integer> entry : settings.mix().entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return Workload.PLACE;
+    }
+
+    private void execute(Workload picked) {
+        // Status updates need a placed order; place one instead while none is available
+        String orderId = picked == Workload.STATUS ? pendingOrderIds.poll() : null;
+        Workload workload = picked == Workload.STATUS && orderId == null ? Workload.PLACE : picked;
+        if (orderId != null) {
+            pendingCount.decrementAndGet();
+        }
+
+        HttpRequest request = switch (workload) {
+            case PLACE -> placeOrderRequest();
+            case LIST -> authorized("/api/orders?limit=50").GET().build();
+            case STATUS -> statusUpdateRequest(orderId);
+        };
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long micros = (System.nanoTime() - start) / 1_000;
+            boolean ok = response.statusCode() / 100 == 2;
+
+            if (ok && workload == Workload.PLACE) {
+                rememberOrder(response.body());
+            }
+            if (recording) {
+                if (ok) {
+                    histograms.get(workload).recordValue(micros);
+                } else {
+                    errors.get(workload).incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            if (recording) {
+                errors.get(workload).incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest placeOrderRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int itemCount = 1 + random.nextInt(settings.maxItems());
+
+        List<Map<String, Object>> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(Map.of(
+                    "productId", 1 + random.nextInt(settings.productCount()),
+                    "quantity", 1 + random.nextInt(3)
+            ));
+        }
+        Map<String, Object> body = Map.of(
+                "customerId", "customer-" + random.nextInt(1_000),
+                "items", items
+        );
+        return authorized("/api/orders")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build();
+    }
+
+    private HttpRequest statusUpdateRequest(String orderId) {
+        return authorized("/api/orders/" + orderId + "/status")
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"status\":\"Processing\"}"))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(settings.baseUri().resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + settings.token());
+    }
+
+    private void rememberOrder(String responseBody) {
+        try {
+            JsonNode id = objectMapper.readTree(responseBody).get("id");
+            if (id != null && pendingCount.incrementAndGet() <= MAX_PENDING_ORDERS) {
+                pendingOrderIds.add(id.asText());
+            } else if (id != null) {
+                pendingCount.decrementAndGet();
+            }
+        } catch (IOException e) {
+            // not a JSON order; ignore
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    //====================================================================
+}
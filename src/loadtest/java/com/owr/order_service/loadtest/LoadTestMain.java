@@ -0,0 +1,280 @@
+package com.owr.order_service.loadtest;
+
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import com.owr.order_service.OrderServiceApplication;
+import de.flapdoodle.embed.mongo.commands.MongodArguments;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.config.Storage;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import de.flapdoodle.reverse.transitions.Start;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.bson.Document;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*=================================================================================
+ * Project: order-service
+ * File: LoadTestMain
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:55 PM
+ * Description: Self-contained load test: starts Mongo, downstream stubs and the order service, then drives load.
+ =================================================================================*/
+
+/**
+ * Run with: mvn -Ploadtest test-compile exec:exec [-Dloadtest.duration=120s -Dloadtest.concurrency=64 ...]
+ * *
+ * Settings (system properties, defaults in the {@code loadtest} Maven profile):
+ * - loadtest.duration / loadtest.warmup     recorded time and warm-up time (e.g. 60s)
+ * - loadtest.concurrency                    concurrent closed-loop workers
+ * - loadtest.mix                            workload weights, e.g. place=60,list=30,status=10
+ * - loadtest.products / loadtest.max-items  product ID range and maximum line items per order
+ * - loadtest.mongodb.uri                    use this MongoDB instead of starting an embedded single-member replica
+ *                                          set (a standalone server cannot serve GET /api/orders/events)
+ * - loadtest.profiles                       Spring profiles of the service under test, e.g. {@code reactive} to
+ *                                          measure the WebFlux stack against the default Spring MVC one
+ * - loadtest.threads                        {@code platform}, {@code virtual} (spring.threads.virtual.enabled, Java 21)
+ *                                          or {@code both}: the same load against each mode in turn, in one JVM and
+ *                                          therefore with the same heap, followed by a side-by-side comparison
+ * - stub.latency / stub.jitter / stub.error-rate   behaviour of the inventory and product stubs
+ * *
+ * Prints throughput and p50/p99/p99.9/max latency per workload and writes {@code summary.csv} plus one HdrHistogram
+ * percentile file ({@code .hgrm}) per workload to {@code target/loadtest/<timestamp>/<threads>/}, so runs can be
+ * compared. With {@code loadtest.threads=both}, {@code comparison.csv} next to them holds orders/s and latency of
+ * {@code POST /api/orders} per mode.
+ */
+@Slf4j
+public class LoadTestMain {
+
+    private static final String REPLICA_SET = "rs0";
+
+    public static void main(String[] args) throws Exception {
+        Duration duration = Duration.parse("PT" + property("loadtest.duration", "60s"));
+        Duration warmup = Duration.parse("PT" + property("loadtest.warmup", "15s"));
+        int concurrency = Integer.parseInt(property("loadtest.concurrency", "32"));
+        Map<LoadDriver.Workload, Integer> mix = parseMix(property("loadtest.mix", "place=60,list=30,status=10"));
+        int products = Integer.parseInt(property("loadtest.products", "1000"));
+        int maxItems = Integer.parseInt(property("loadtest.max-items", "5"));
+        String mongoUri = property("loadtest.mongodb.uri", "");
+        String profiles = property("loadtest.profiles", "");
+        List<String> threadModes = threadModes(property("loadtest.threads", "platform"));
+
+        Duration stubLatency = Duration.parse("PT" + property("stub.latency", "0.005s"));
+        Duration stubJitter = Duration.parse("PT" + property("stub.jitter", "0.005s"));
+        double stubErrorRate = Double.parseDouble(property("stub.error-rate", "0"));
+
+        Path dir = Path.of("target", "loadtest",
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        List<String> comparison = new ArrayList<>();
+        comparison.add("threads,orders,errors,orders_per_s,p50_ms,p99_ms,p999_ms,max_ms,max_heap_mb");
+
+        TransitionWalker.ReachedState<RunningMongodProcess> mongod = null;
+        try (StubDownstreamServer stubs = new StubDownstreamServer(stubLatency, stubJitter, stubErrorRate, 1_000_000_000)) {
+            // 1) MongoDB: given URI, or an embedded mongod (downloaded on first use, no container needed), started as
+            //    a single-member replica set so GET /api/orders/events can open change streams
+            if (mongoUri.isBlank()) {
+                mongod = Mongod.instance()
+                        .withMongodArguments(Start.to(MongodArguments.class).initializedWith(MongodArguments.defaults()
+                                .withUseNoJournal(false)
+                                .withReplication(Storage.of(REPLICA_SET, 0))))
+                        .start(Version.Main.V7_0);
+                ServerAddress address = mongod.current().getServerAddress();
+                String hostAndPort = address.getHost() + ":" + address.getPort();
+                initiateReplicaSet(hostAndPort);
+                mongoUri = "mongodb://" + hostAndPort + "/orders-loadtest?replicaSet=" + REPLICA_SET;
+            }
+
+            String token = stubs.getJwtIssuer().issue("loadtest-user",
+                    duration.plus(warmup).plusHours(1).multipliedBy(threadModes.size()));
+            for (String threads : threadModes) {
+                // 2) The order service, wired to the stubs and the local JWT issuer
+                List<String> appArgs = new ArrayList<>(List.of(
+                        "--server.port=0",
+                        "--spring.data.mongodb.uri=" + mongoUri,
+                        "--spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "--inventory.service.url=" + stubs.baseUrl() + "/inventory",
+                        "--product.service.url=" + stubs.baseUrl() + "/products",
+                        "--inventory.service.token=" + token,
+                        "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + stubs.getJwtIssuer().getIssuer(),
+                        "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + stubs.baseUrl() + "/jwks"
+                ));
+                if (!profiles.isBlank()) {
+                    appArgs.add("--spring.profiles.active=" + profiles);
+                }
+                if (threadModes.size() > 1) {
+                    // Every mode starts from an empty database
+                    appArgs.add("--spring.data.mongodb.database=orders-loadtest-" + threads);
+                }
+                log.info("Starting the order service with {} threads", threads);
+                ConfigurableApplicationContext app = SpringApplication.run(
+                        OrderServiceApplication.class, appArgs.toArray(String[]::new));
+
+                try {
+                    int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+
+                    // 3) Drive load and report
+                    LoadDriver.Result result = new LoadDriver(new LoadDriver.Settings(
+                            URI.create("http://localhost:" + port),
+                            token,
+                            concurrency,
+                            warmup,
+                            duration,
+                            mix,
+                            products,
+                            maxItems
+                    )).run();
+
+                    report(result, dir.resolve(threads));
+                    comparison.add(threads + "," + placeSummary(result));
+                } finally {
+                    app.close();
+                }
+            }
+        } finally {
+            if (mongod != null) {
+                mongod.close();
+            }
+        }
+
+        if (threadModes.size() > 1) {
+            Files.write(dir.resolve("comparison.csv"), comparison);
+            System.out.println();
+            System.out.println("POST /api/orders per thread mode (" + concurrency + " workers):");
+            comparison.forEach(line -> System.out.println(line.replace(',', '\t')));
+        }
+        System.exit(0);
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Prints the summary table and writes it, plus the full percentile distributions, to {@code target/loadtest}.
+     */
+    private static void report(LoadDriver.Result result, Path dir) throws IOException {
+        Files.createDirectories(dir);
+
+        double seconds = result.elapsed().toNanos() / 1e9;
+        List<String> lines = new ArrayList<>();
+        lines.add("workload,requests,errors,throughput_per_s,p50_ms,p99_ms,p999_ms,max_ms");
+
+        long totalRequests = 0;
+        for (Map.Entry<LoadDriver.Workload, LoadDriver.WorkloadResult> entry : result.workloads().entrySet()) {
+            Histogram histogram = entry.getValue().histogram();
+            long count = histogram.getTotalCount();
+            totalRequests += count;
+            lines.add(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f",
+                    entry.getKey().name().toLowerCase(Locale.ROOT),
+                    count,
+                    entry.getValue().errors(),
+                    count / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0
+            ));
+
+            // Full distribution in milliseconds, readable by the HdrHistogram plotter
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(dir.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        lines.add(String.format(Locale.ROOT, "total,%d,,%.1f,,,,", totalRequests, totalRequests / seconds));
+        Files.write(dir.resolve("summary.csv"), lines);
+
+        System.out.println();
+        lines.forEach(line -> System.out.println(line.replace(',', '\t')));
+        log.info("Load test results written to {}", dir.toAbsolutePath());
+    }
+
+    /**
+     * One {@code comparison.csv} row (without the mode): count, errors, rate and latency of placed orders, plus the
+     * heap limit shared by all modes.
+     */
+    private static String placeSummary(LoadDriver.Result result) {
+        LoadDriver.WorkloadResult place = result.workloads().get(LoadDriver.Workload.PLACE);
+        Histogram histogram = place.histogram();
+        return String.format(Locale.ROOT, "%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%d",
+                histogram.getTotalCount(),
+                place.errors(),
+                histogram.getTotalCount() / (result.elapsed().toNanos() / 1e9),
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0,
+                Runtime.getRuntime().maxMemory() / (1024 * 1024)
+        );
+    }
+
+    /**
+     * Makes the embedded mongod the primary of a single-member replica set and waits until it accepts writes.
+     */
+    private static void initiateReplicaSet(String hostAndPort) throws InterruptedException {
+        try (MongoClient client = MongoClients.create("mongodb://" + hostAndPort + "/?directConnection=true")) {
+            MongoDatabase admin = client.getDatabase("admin");
+            admin.runCommand(new Document("replSetInitiate", new Document("_id", REPLICA_SET)
+                    .append("members", List.of(new Document("_id", 0).append("host", hostAndPort)))));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (!admin.runCommand(new Document("hello", 1)).getBoolean("isWritablePrimary", false)) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Embedded replica set " + REPLICA_SET + " elected no primary");
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    /**
+     * Thread modes to run, in order; virtual threads need Java 21 (build with {@code -Pjava21}).
+     */
+    private static List<String> threadModes(String threads) {
+        List<String> modes = switch (threads.trim().toLowerCase(Locale.ROOT)) {
+            case "platform" -> List.of("platform");
+            case "virtual" -> List.of("virtual");
+            case "both" -> List.of("platform", "virtual");
+            default -> throw new IllegalArgumentException(
+                    "loadtest.threads must be platform, virtual or both, not " + threads);
+        };
+        if (modes.contains("virtual") && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21; run with -Pjava21 on a Java 21 JDK");
+        }
+        return modes;
+    }
+
+    private static Map<LoadDriver.Workload, Integer> parseMix(String mix) {
+        Map<LoadDriver.Workload, Integer> weights = new EnumMap<>(LoadDriver.Workload.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            weights.put(LoadDriver.Workload.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+    //====================================================================
+}
@@ -0,0 +1,78 @@
+package com.owr.order_service.loadtest;
+
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/*=================================================================================
+ * Project: order-service
+ * File: LocalJwtIssuer
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:20 PM
+ * Description: Throw-away RSA key pair that signs access tokens for load tests.
+ * - The public key is served as a JWK set by {@link StubDownstreamServer} ({@code /jwks}).
+ =================================================================================*/
+public class LocalJwtIssuer {
+
+    private final String issuer;
+    private final RSAKey key;
+
+    public LocalJwtIssuer(String issuer) {
+        this.issuer = issuer;
+        try {
+            this.key = new RSAKeyGenerator(2048).keyID("loadtest").generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot generate the load-test signing key", e);
+        }
+    }
+
+    /**
+     * Issues a signed RS256 access token.
+     *
+     * @param subject  the {@code sub} claim
+     * @param lifetime how long the token is valid
+     * @return the serialized JWT
+     */
+    public String issue(String subject, Duration lifetime) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(lifetime)))
+                .build();
+
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                claims
+        );
+        try {
+            jwt.sign(new RSASSASigner(key));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot sign load-test token", e);
+        }
+        return jwt.serialize();
+    }
+
+    /**
+     * @return the public JWK set, as served to the order service
+     */
+    public String jwkSetJson() {
+        return new JWKSet(key.toPublicJWK()).toString();
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+}
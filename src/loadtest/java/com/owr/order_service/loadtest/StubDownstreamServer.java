@@ -0,0 +1,235 @@
+package com.owr.order_service.loadtest;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.owr.order_service.dto.request.InventoryReservationRequest;
+import com.owr.order_service.dto.request.InventoryUpdateRequest;
+import com.owr.order_service.dto.response.InventoryResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*=================================================================================
+ * Project: order-service
+ * File: StubDownstreamServer
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:25 PM
+ * Description: In-process HTTP stand-in for Inventory-Service, Product-Service and the JWT issuer's key set.
+ =================================================================================*/
+
+/**
+ * Endpoints (all on one port):
+ * - GET  /inventory/{productId}                 -> available stock (integer)
+ * - GET  /inventory/batch?productIds=1&productIds=2 -> JSON array of {@link InventoryResponse}
+ * - POST /inventory/decrease                    -> decreases stock by a quantity (409 if insufficient)
+ * - POST /inventory/batch/decrease              -> same for a JSON array
+ * - POST /inventory                             -> sets the absolute stock level
+ * - GET  /products/{productId}/price            -> unit price (number)
+ * - GET  /jwks                                  -> public keys of the {@link LocalJwtIssuer}
+ * *
+ * Every inventory and product request is delayed by {@code latency} plus a uniformly random {@code jitter} and fails
+ * with 503 with probability {@code errorRate}. Decrements carrying an already seen idempotency key (the
+ * {@code Idempotency-Key} header of a single decrement, the per-line key of a batch) are acknowledged without being
+ * applied again.
+ */
+@Slf4j
+public class StubDownstreamServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final LocalJwtIssuer jwtIssuer;
+
+    private final Duration latency;
+    private final Duration jitter;
+    /**
+     * Probability of a 503 per request; can be changed while running to inject and clear faults.
+     */
+    private volatile double errorRate;
+    private final int initialStock;
+
+    private final Map<Long, AtomicInteger> stockByProductId = new ConcurrentHashMap<>();
+    private final Set<String> appliedKeys = ConcurrentHashMap.newKeySet();
+
+    public StubDownstreamServer(Duration latency, Duration jitter, double errorRate, int initialStock) throws IOException {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.initialStock = initialStock;
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        this.jwtIssuer = new LocalJwtIssuer(baseUrl());
+
+        server.createContext("/inventory", this::handleInventory);
+        server.createContext("/products", this::handleProducts);
+        server.createContext("/jwks", exchange -> respond(exchange, 200, jwtIssuer.jwkSetJson()));
+        server.setExecutor(executor);
+        server.start();
+        log.info("Stub downstream server listening on {}", baseUrl());
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public LocalJwtIssuer getJwtIssuer() {
+        return jwtIssuer;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    //=================== Helper Functions ===============================
+
+    private void handleInventory(HttpExchange exchange) throws IOException {
+        if (simulateDownstream(exchange)) {
+            return;
+        }
+        String path = exchange.getRequestURI().getPath().substring("/inventory".length());
+        String method = exchange.getRequestMethod();
+        String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+
+        if (method.equals("GET") && path.equals("/batch")) {
+            List<InventoryResponse> entries = new ArrayList<>();
+            for (Long productId : queryProductIds(exchange.getRequestURI().getRawQuery())) {
+                entries.add(new InventoryResponse(productId, stock(productId).get(), 0.0));
+            }
+            respond(exchange, 200, objectMapper.writeValueAsString(entries));
+        } else if (method.equals("GET") && path.matches("/\\d+")) {
+            respond(exchange, 200, Integer.toString(stock(Long.parseLong(path.substring(1))).get()));
+        } else if (method.equals("POST") && path.equals("/decrease")) {
+            InventoryReservationRequest request =
+                    objectMapper.readValue(exchange.getRequestBody(), InventoryReservationRequest.class);
+            respond(exchange, applyOnce(List.of(request), List.of(idempotencyKey)) ? 200 : 409, "");
+        } else if (method.equals("POST") && path.equals("/batch/decrease")) {
+            InventoryReservationRequest[] requests =
+                    objectMapper.readValue(exchange.getRequestBody(), InventoryReservationRequest[].class);
+            respond(exchange, applyOnce(Arrays.asList(requests),
+                    Arrays.stream(requests).map(InventoryReservationRequest::idempotencyKey).toList()) ? 200 : 409, "");
+        } else if (method.equals("POST") && path.isEmpty()) {
+            InventoryUpdateRequest request =
+                    objectMapper.readValue(exchange.getRequestBody(), InventoryUpdateRequest.class);
+            stock(request.productId()).set(request.newQuantity());
+            respond(exchange, 200, "");
+        } else {
+            respond(exchange, 404, "");
+        }
+    }
+
+    private void handleProducts(HttpExchange exchange) throws IOException {
+        if (simulateDownstream(exchange)) {
+            return;
+        }
+        String path = exchange.getRequestURI().getPath();
+        if (exchange.getRequestMethod().equals("GET") && path.matches("/products/\\d+/price")) {
+            long productId = Long.parseLong(path.split("/")[2]);
+            respond(exchange, 200, Double.toString(9.99 + productId % 100));
+        } else {
+            respond(exchange, 404, "");
+        }
+    }
+
+    /**
+     * Applies the configured latency and error rate.
+     *
+     * @return true if an error response was sent and the request must not be processed
+     */
+    private boolean simulateDownstream(HttpExchange exchange) throws IOException {
+        long delayNanos = latency.toNanos()
+                + (jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toNanos()));
+        if (delayNanos > 0) {
+            try {
+                Thread.sleep(delayNanos / 1_000_000, (int) (delayNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            respond(exchange, 503, "");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Decreases stock for all requests, all or nothing; lines whose key was already applied are acknowledged only.
+     *
+     * @param keys the idempotency key of each request, in the same order; a {@code null} key is never deduplicated
+     */
+    private synchronized boolean applyOnce(List<InventoryReservationRequest> requests, List<String> keys) {
+        List<InventoryReservationRequest> pending = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (keys.get(i) == null || !appliedKeys.contains(keys.get(i))) {
+                pending.add(requests.get(i));
+            }
+        }
+        for (InventoryReservationRequest request : pending) {
+            if (stock(request.productId()).get() < request.quantity()) {
+                return false;
+            }
+        }
+        pending.forEach(request -> stock(request.productId()).addAndGet(-request.quantity()));
+        keys.stream().filter(key -> key != null).forEach(appliedKeys::add);
+        return true;
+    }
+
+    private AtomicInteger stock(Long productId) {
+        return stockByProductId.computeIfAbsent(productId, id -> new AtomicInteger(initialStock));
+    }
+
+    /**
+     * Reads {@code productIds} from a query string, accepting both repeated and comma-separated values.
+     */
+    private static List<Long> queryProductIds(String rawQuery) {
+        List<Long> productIds = new ArrayList<>();
+        if (rawQuery == null) {
+            return productIds;
+        }
+        for (String pair : rawQuery.split("&")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length == 2 && parts[0].equals("productIds")) {
+                for (String value : URLDecoder.decode(parts[1], StandardCharsets.UTF_8).split(",")) {
+                    productIds.add(Long.parseLong(value.trim()));
+                }
+            }
+        }
+        return productIds;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+    //====================================================================
+}
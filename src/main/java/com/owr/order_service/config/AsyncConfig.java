@@ -0,0 +1,114 @@
+package com.owr.order_service.config;
+
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/*=================================================================================
+ * Project: order-service
+ * File: AsyncConfig
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 9:10 AM
+ * Description: Configuration of the executors used to run downstream calls concurrently.
+ * - Platform threads by default; virtual threads when {@code spring.threads.virtual.enabled=true} (Java 21+).
+ * - Enables {@code @Scheduled} background jobs (stock outbox draining).
+ =================================================================================*/
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /** --------------------------------------------------------------
+     * Creates the executor that runs the inventory and product lookups of an order in parallel.
+     * *
+     *  - The pool size caps how many downstream calls the service has in flight at any time.
+     *  - Lookups beyond the cap wait in a bounded queue; once the queue is full new lookups are rejected.
+     *
+     * @param maxConcurrency maximum number of lookups running at the same time
+     * @param queueCapacity  maximum number of lookups waiting for a free thread
+     * @return the lookup executor, initialised and shut down by the Spring container
+     */
+    @Bean(name = "orderLookupExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor orderLookupExecutor(
+            @Value("${order.lookup.max-concurrency:32}") int maxConcurrency,
+            @Value("${order.lookup.queue-capacity:1000}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-lookup-");
+        return executor;
+    }
+
+    /** --------------------------------------------------------------
+     * Virtual-thread variant of the lookup executor, active when {@code spring.threads.virtual.enabled=true}.
+     * *
+     *  - Every lookup runs on its own virtual thread, so blocking downstream calls do not tie up platform threads.
+     *  - {@code order.lookup.max-concurrency} still caps the lookups in flight; further submissions wait for a slot.
+     *
+     * @param maxConcurrency maximum number of lookups running at the same time
+     * @return the lookup executor backed by virtual threads
+     */
+    @Bean(name = "orderLookupExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualOrderLookupExecutor(
+            @Value("${order.lookup.max-concurrency:32}") int maxConcurrency
+    ) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-lookup-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxConcurrency);
+        return executor;
+    }
+
+    /** --------------------------------------------------------------
+     * Creates the executor that makes the first stock decrement attempt of a newly placed order, off the request
+     * thread.
+     * *
+     *  - Small and bounded: when it is saturated the attempt is simply skipped and the scheduled outbox drain
+     *    performs it later, so checkout never waits for the inventory write.
+     *
+     * @param workers       number of threads sending decrements
+     * @param queueCapacity maximum number of attempts waiting for a free thread
+     * @return the outbox executor, initialised and shut down by the Spring container
+     */
+    @Bean(name = "stockOutboxExecutor")
+    public ThreadPoolTaskExecutor stockOutboxExecutor(
+            @Value("${order.outbox.workers:4}") int workers,
+            @Value("${order.outbox.queue-capacity:1000}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stock-outbox-");
+        return executor;
+    }
+
+    /** --------------------------------------------------------------
+     * Creates the executor running hedged price requests (see {@code ProductPriceHedger}).
+     * *
+     *  - No queue: when all threads are busy a lookup is sent unhedged on the calling thread instead of waiting.
+     *  - Threads are only started once hedging is enabled and used.
+     *
+     * @param maxConcurrency maximum number of price requests in flight through the hedger
+     * @return the hedge executor, initialised and shut down by the Spring container
+     */
+    @Bean(name = "priceHedgeExecutor")
+    public ThreadPoolTaskExecutor priceHedgeExecutor(
+            @Value("${product.hedge.max-concurrency:64}") int maxConcurrency
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("price-hedge-");
+        return executor;
+    }
+}
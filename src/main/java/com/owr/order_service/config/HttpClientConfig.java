@@ -0,0 +1,112 @@
+package com.owr.order_service.config;
+
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/*=================================================================================
+ * Project: order-service
+ * File: HttpClientConfig
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 1:10 PM
+ * Description: Pooled, keep-alive HTTP transport with timeouts for the downstream REST clients.
+ =================================================================================*/
+@Configuration
+public class HttpClientConfig {
+
+    /** --------------------------------------------------------------
+     * Creates the connection pool shared by {@code InventoryClient} and {@code ProductClient}.
+     * *
+     *  - {@code http.client.max-total} caps open connections overall, {@code http.client.max-per-route}
+     *    per downstream host.
+     *  - Connections are kept alive and reused; they are closed after {@code http.client.time-to-live}.
+     *
+     * @return the pooling connection manager
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager(
+            @Value("${http.client.max-total:200}") int maxTotal,
+            @Value("${http.client.max-per-route:50}") int maxPerRoute,
+            @Value("${http.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${http.client.response-timeout:5s}") Duration responseTimeout,
+            @Value("${http.client.time-to-live:5m}") Duration timeToLive
+    ) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(responseTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        // Re-check connections that have been idle before handing them out again
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    /** --------------------------------------------------------------
+     * Creates the HTTP client on top of the pool.
+     * *
+     *  - {@code http.client.connection-request-timeout} bounds the wait for a free pooled connection, so a
+     *    saturated pool fails fast instead of blocking a request thread.
+     *  - {@code http.client.response-timeout} bounds the wait for a response, so one hung downstream call
+     *    cannot hold a Tomcat thread forever.
+     *  - A background thread evicts expired connections and those idle longer than {@code http.client.idle-eviction}.
+     *
+     * @return the pooled {@link CloseableHttpClient}
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${http.client.connection-request-timeout:1s}") Duration connectionRequestTimeout,
+            @Value("${http.client.response-timeout:5s}") Duration responseTimeout,
+            @Value("${http.client.idle-eviction:30s}") Duration idleEviction
+    ) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
+
+    /** --------------------------------------------------------------
+     * Creates and registers a {@link RestTemplate} bean backed by the pooled HTTP client.
+     *
+     * @return a {@code RestTemplate} using {@link HttpComponentsClientHttpRequestFactory}
+     */
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    /** --------------------------------------------------------------
+     * Publishes pool usage as {@code httpcomponents.httpclient.pool.*} metrics (leased, available and pending
+     * connections, configured maximums), tagged {@code httpclient=downstream}.
+     * A growing pending count means the pool is saturated.
+     *
+     * @return the meter binder picked up by Actuator
+     */
+    @Bean
+    public MeterBinder httpConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "downstream");
+    }
+}
@@ -1,10 +1,8 @@
 package com.owr.order_service.config;
 
 
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
-import org.springframework.web.client.RestTemplate;
 
 /*=================================================================================
  * Project: order-service
@@ -24,14 +22,4 @@ public class MongoConfig {
      * activating auditing behavior.
      */
 
-    /** --------------------------------------------------------------
-     * Creates and registers a {@link RestTemplate} bean.
-     *
-     * @return a new instance of {@code RestTemplate}
-     */
-
-    @Bean
-    public RestTemplate restTemplate(){
-        return new RestTemplate();
-    }
 }
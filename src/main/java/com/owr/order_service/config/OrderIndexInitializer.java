@@ -0,0 +1,133 @@
+package com.owr.order_service.config;
+
+
+import com.owr.order_service.model.IdempotencyRecord;
+import com.owr.order_service.model.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderIndexInitializer
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 3:40 PM
+ * Description: Creates and verifies the managed index sets of the order service collections at startup.
+ =================================================================================*/
+
+/**
+ * The index set is declared once, through {@code @CompoundIndex} on {@link Order}:
+ * - (customerId, createdAt, _id) for customer history
+ * - (status, createdAt, _id) for status queries
+ * - (createdAt, _id) for date-range queries
+ * - (outbox.nextAttemptAt), partial on pending entries, for the stock outbox drain
+ * and through {@code @Indexed} on {@link IdempotencyRecord}:
+ * - a TTL index on expiresAt, which removes expired idempotency keys
+ * *
+ * On startup the declared indexes are created if {@code order.indexes.create-on-startup} is true (creating an
+ * existing index is a no-op), then the collection is checked for every declared index. A missing index is logged,
+ * or fails the startup if {@code order.indexes.fail-on-missing} is true.
+ * *
+ * Indexes that earlier versions of this class created and that a declared index now covers are dropped in the same
+ * step, so the collection does not keep paying for them on every write.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderIndexInitializer implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${order.indexes.create-on-startup:true}")
+    private boolean createOnStartup;
+
+    @Value("${order.indexes.fail-on-missing:false}")
+    private boolean failOnMissing;
+
+    /**
+     * Documents whose declared indexes are managed here.
+     */
+    private static final List<Class<?>> MANAGED_DOCUMENTS = List.of(Order.class, IdempotencyRecord.class);
+
+    /**
+     * Indexes created by earlier versions, by document; each is a prefix of a declared {@code *_createdAt_id} index.
+     */
+    private static final Map<Class<?>, List<String>> SUPERSEDED_INDEXES = Map.of(
+            Order.class, List.of("customerId_createdAt", "status_createdAt", "createdAt")
+    );
+
+    @Override
+    public void run(ApplicationArguments args) {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        MANAGED_DOCUMENTS.forEach(type -> ensureIndexes(resolver, type));
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Creates (if enabled) and verifies the indexes declared on one document type.
+     */
+    private void ensureIndexes(IndexResolver resolver, Class<?> type) {
+        IndexOperations indexOps = mongoTemplate.indexOps(type);
+        String collection = mongoTemplate.getCollectionName(type);
+
+        // Resolve the indexes declared on the document
+        List<IndexDefinition> declared = new ArrayList<>();
+        resolver.resolveIndexFor(type).forEach(declared::add);
+
+        if (createOnStartup) {
+            declared.forEach(indexOps::createIndex);
+            dropSuperseded(indexOps, type, collection);
+        }
+
+        // Verify every declared index exists
+        Set<String> existing = indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+        List<String> missing = declared.stream()
+                .map(index -> index.getIndexOptions().getString("name"))
+                .filter(name -> !existing.contains(name))
+                .toList();
+
+        if (missing.isEmpty()) {
+            log.info("Indexes of {} verified: {}", collection, existing);
+            return;
+        }
+        if (failOnMissing) {
+            throw new IllegalStateException("Missing indexes on " + collection + ": " + missing);
+        }
+        log.warn("Missing indexes on {}: {} - queries on these fields will scan the collection", collection, missing);
+    }
+
+    /**
+     * Drops the superseded indexes of one document type that are still present; runs after the replacements exist.
+     */
+    private void dropSuperseded(IndexOperations indexOps, Class<?> type, String collection) {
+        List<String> superseded = SUPERSEDED_INDEXES.getOrDefault(type, List.of());
+        if (superseded.isEmpty()) {
+            return;
+        }
+        indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(superseded::contains)
+                .forEach(name -> {
+                    indexOps.dropIndex(name);
+                    log.info("Dropped superseded index {} on {}", name, collection);
+                });
+    }
+    //====================================================================
+}
@@ -0,0 +1,53 @@
+package com.owr.order_service.config;
+
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ReactiveSecurityConfig
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 3:30 PM
+ * Description: WebFlux counterpart of {@link SecurityConfig}, active with the {@code reactive} profile.
+ =================================================================================*/
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+    /**
+     * Same rules as {@link SecurityConfig#filterChain}: health and Prometheus are public, actuator operations that
+     * change state need {@code management.admin-authority}, everything else needs a valid JWT. CSRF protection is
+     * off because the API is stateless and authenticated by Bearer tokens only.
+     *
+     * @param http           ServerHttpSecurity instance used to configure security rules.
+     * @param adminAuthority authority required for actuator operations that change state
+     * @return A built SecurityWebFilterChain bean.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(
+            ServerHttpSecurity http,
+            @Value("${management.admin-authority:SCOPE_order-admin}") String adminAuthority
+    ) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authorizeExchange(exchanges -> exchanges
+                        .matchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                        .matchers(EndpointRequest.to("pricecache").withHttpMethod(HttpMethod.DELETE))
+                        .hasAuthority(adminAuthority)
+                        .matchers(EndpointRequest.to("orderstats").withHttpMethod(HttpMethod.POST))
+                        .hasAuthority(adminAuthority)
+                        .anyExchange().authenticated()
+                )
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
+                .build();
+    }
+}
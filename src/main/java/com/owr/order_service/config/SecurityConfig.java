@@ -1,8 +1,12 @@
 package com.owr.order_service.config;
 
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
@@ -13,21 +17,35 @@ import org.springframework.security.web.SecurityFilterChain;
  * Created by: Ochwada
  * Created on: 08, 8/8/2025, 2:46 PM
  * Description:  Configures Spring Security to protect all endpoints using OAuth2 with JWT tokens.
+ * - Servlet stack only; see {@link ReactiveSecurityConfig} for the {@code reactive} profile.
  =================================================================================*/
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 public class SecurityConfig {
     /**
      * Defines the security filter chain for HTTP requests.
      *
-     * @param httpSecurity HttpSecurity instance used to configure security rules.
+     * @param httpSecurity   HttpSecurity instance used to configure security rules.
+     * @param adminAuthority authority required for actuator operations that change state
      * @return A built SecurityFilterChain bean.
      * @throws Exception in case of configuration errors.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain filterChain(
+            HttpSecurity httpSecurity,
+            @Value("${management.admin-authority:SCOPE_order-admin}") String adminAuthority
+    ) throws Exception {
         httpSecurity
                 .authorizeHttpRequests(auth -> auth
+                        // Health probes and the Prometheus scrape endpoint are read without a token
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                        // Wiping the price cache sends all price lookups to the product service: admins only
+                        .requestMatchers(EndpointRequest.to("pricecache").withHttpMethod(HttpMethod.DELETE))
+                        .hasAuthority(adminAuthority)
+                        // Rebuilding the order stats aggregates all orders: admins only
+                        .requestMatchers(EndpointRequest.to("orderstats").withHttpMethod(HttpMethod.POST))
+                        .hasAuthority(adminAuthority)
                         // Require authentication for all other endpoints
                         .anyRequest().authenticated()
                 )
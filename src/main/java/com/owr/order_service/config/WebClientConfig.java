@@ -0,0 +1,80 @@
+package com.owr.order_service.config;
+
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/*=================================================================================
+ * Project: order-service
+ * File: WebClientConfig
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 3:25 PM
+ * Description: Non-blocking HTTP transport (Reactor Netty) for the downstream clients of the {@code reactive} profile.
+ =================================================================================*/
+@Configuration
+@Profile("reactive")
+public class WebClientConfig {
+
+    /** --------------------------------------------------------------
+     * Creates the connection pool used by {@code ReactiveInventoryClient} and {@code ReactiveProductClient}.
+     * *
+     *  - {@code http.client.reactive.max-connections} caps open connections per downstream host.
+     *  - Requests waiting for a connection are queued without holding a thread, up to
+     *    {@code http.client.reactive.pending-acquire-max-count}, each for at most
+     *    {@code http.client.connection-request-timeout}.
+     *  - Idle and expired connections are closed like in the blocking pool ({@code http.client.idle-eviction},
+     *    {@code http.client.time-to-live}).
+     *
+     * @return the connection provider, disposed by the Spring container
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider downstreamConnectionProvider(
+            @Value("${http.client.reactive.max-connections:500}") int maxConnections,
+            @Value("${http.client.reactive.pending-acquire-max-count:10000}") int pendingAcquireMaxCount,
+            @Value("${http.client.connection-request-timeout:1s}") Duration connectionRequestTimeout,
+            @Value("${http.client.idle-eviction:30s}") Duration idleEviction,
+            @Value("${http.client.time-to-live:5m}") Duration timeToLive
+    ) {
+        return ConnectionProvider.builder("downstream")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(idleEviction)
+                .maxLifeTime(timeToLive)
+                .evictInBackground(idleEviction)
+                .metrics(true)
+                .build();
+    }
+
+    /** --------------------------------------------------------------
+     * Creates the {@link WebClient} on top of the pool, with the same connect and response timeouts as the
+     * blocking {@code RestTemplate}. Built from Spring Boot's {@link WebClient.Builder}, so requests are also
+     * recorded as {@code http.client.requests}.
+     *
+     * @return the downstream {@link WebClient}
+     */
+    @Bean
+    public WebClient downstreamWebClient(
+            WebClient.Builder builder,
+            ConnectionProvider downstreamConnectionProvider,
+            @Value("${http.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${http.client.response-timeout:5s}") Duration responseTimeout
+    ) {
+        HttpClient httpClient = HttpClient.create(downstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
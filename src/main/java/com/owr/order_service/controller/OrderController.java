@@ -1,18 +1,37 @@
 package com.owr.order_service.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.owr.order_service.dto.request.BatchOrderRequest;
+import com.owr.order_service.dto.request.BulkStatusUpdateRequest;
 import com.owr.order_service.dto.request.CreateOrderRequest;
+import com.owr.order_service.dto.request.OrderFilterRequest;
+import com.owr.order_service.dto.response.BatchOrderResponse;
+import com.owr.order_service.dto.response.BulkStatusUpdateResponse;
+import com.owr.order_service.dto.response.OrderPageResponse;
 import com.owr.order_service.dto.response.OrderResponse;
+import com.owr.order_service.dto.response.OrderStatsResponse;
+import com.owr.order_service.dto.response.OrderSummaryResponse;
 import com.owr.order_service.model.Status;
+import com.owr.order_service.service.idempotency.IdempotencyStore;
 import com.owr.order_service.service.impl.OrderServiceImpl;
+import com.owr.order_service.service.stats.OrderStatsStore;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /*=================================================================================
  * Project: order-service
@@ -20,52 +39,231 @@ import java.util.List;
  * Created by: Ochwada
  * Created on: 08, 8/8/2025, 2:55 PM
  * Description:  Exposes endpoints to create and retrieve orders.
+ * - Spring MVC (default); replaced by {@link ReactiveOrderController} when the {@code reactive} profile is active.
  =================================================================================*/
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping("/api/orders")
 public class OrderController {
 
     private final OrderServiceImpl service;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderStatsStore statsStore;
 
     /**
-     * Retrieves all orders or filters them by optional date range.
+     * Header carrying the cursor of the next page on paginated responses.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Optional request header that makes {@code POST /api/orders} safe to retry.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Upper bound for the length of an idempotency key.
+     */
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    /**
+     * Retrieves orders page by page, newest first: either all orders or the orders matching the optional filters.
+     * *
+     *  - Without filters, pages walk all orders.
+     *  - With any of {@code dateFrom}, {@code dateTo}, {@code status}, {@code customerId}, pages walk the matching
+     *    orders only. Dates are whole days; {@code dateTo} is inclusive and defaults to {@code dateFrom}.
+     * *
+     * The response is one page of at most {@code limit} orders. If more orders exist, the
+     * {@value #NEXT_CURSOR_HEADER} response header holds the cursor to request the next page with.
+     * This endpoint used to return all orders at once; clients that ignore the header only get the first page and
+     * must follow the cursor (or use {@code GET /api/orders/export}) to read everything.
      *
-     * @param dateFrom optional start date (format: yyyy-MM-dd)
-     * @param dateTo   optional end date (format: yyyy-MM-dd)
+     * @param dateFrom   optional start date (format: yyyy-MM-dd)
+     * @param dateTo     optional end date (format: yyyy-MM-dd)
+     * @param status     optional status filter (e.g. {@code Shipped})
+     * @param customerId optional customer filter
+     * @param cursor     optional cursor of the page to fetch (value of {@value #NEXT_CURSOR_HEADER})
+     * @param limit      optional page size (capped by {@code order.page.max-size})
      * @return list of {@link OrderResponse} representing matching orders
      * *
      * /GET /api/orders
-     * /GET /api/orders?date=2025-08-07
-     * GET /api/orders?dateFrom=2025-08-07&dateTo=2025-08-08
+     * /GET /api/orders?limit=100&cursor=66b4c9e2f1a2b34c5d6e7f80
+     * /GET /api/orders?dateFrom=2025-08-07
+     * GET /api/orders?dateFrom=2025-08-01&dateTo=2025-08-31&status=Shipped
      */
     @GetMapping
-    public List<OrderResponse> getAllOrders(
+    public ResponseEntity<List<OrderResponse>> getAllOrders(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
-        if (dateFrom != null || dateTo != null) {
-            return service.getOrdersByDateRange(dateFrom, dateTo);
+        OrderFilterRequest filter = toFilter(dateFrom, dateTo, status, customerId);
+        if (!filter.isEmpty()) {
+            return toPagedResponse(service.getOrdersByFilter(filter, cursor, limit));
         }
-        return service.getAllOrders();
+        return toPagedResponse(service.getOrders(cursor, limit));
+    }
+
+    /**
+     * Exports orders as newline-delimited JSON (one {@link OrderResponse} per line), oldest first.
+     * *
+     * Accepts the same optional filters as {@code GET /api/orders}. Orders are written to the response as the
+     * database cursor yields them, so memory use stays constant regardless of the number of orders.
+     * *
+     * GET /api/orders/export
+     * GET /api/orders/export?dateFrom=2025-08-01&dateTo=2025-08-31
+     *
+     * @return the streaming NDJSON response body
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customerId
+    ) {
+        OrderFilterRequest filter = toFilter(dateFrom, dateTo, status, customerId);
+        ObjectWriter writer = objectMapper.writerFor(OrderResponse.class);
+
+        StreamingResponseBody body = out -> {
+            try (Stream<OrderResponse> orders = service.streamOrders(filter)) {
+                Iterator<OrderResponse> iterator = orders.iterator();
+                while (iterator.hasNext()) {
+                    out.write(writer.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Retrieves order summaries page by page (newest first), without line items.
+     * *
+     * Meant for dashboards and list views; paginated like {@code GET /api/orders}.
+     * *
+     * GET /api/orders/summary
+     * GET /api/orders/summary?limit=200&cursor=66b4c9e2f1a2b34c5d6e7f80
+     *
+     * @param cursor optional cursor of the page to fetch (value of {@value #NEXT_CURSOR_HEADER})
+     * @param limit  optional page size (capped by {@code order.page.max-size})
+     * @return list of {@link OrderSummaryResponse}
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<OrderSummaryResponse>> getOrderSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return toPagedResponse(service.getOrderSummaries(cursor, limit));
+    }
+
+    /**
+     * Returns order statistics for dashboards: orders and revenue overall, the number of orders currently in each
+     * status, and orders and revenue per day.
+     * *
+     * Served from incrementally maintained counters, so the cost does not depend on the number of orders. Days are
+     * whole days; {@code dateTo} defaults to today and {@code dateFrom} to {@code order.stats.default-days} days
+     * before it.
+     * *
+     * GET /api/orders/stats
+     * GET /api/orders/stats?dateFrom=2025-08-01&dateTo=2025-08-31
+     *
+     * @param dateFrom optional first day (format: yyyy-MM-dd)
+     * @param dateTo   optional last day, inclusive (format: yyyy-MM-dd)
+     * @return the {@link OrderStatsResponse}
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStatsResponse> getOrderStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo
+    ) {
+        return ResponseEntity.ok(statsStore.read(dateFrom, dateTo));
+    }
+
+    /**
+     * Retrieves the order history of one customer page by page, newest first ("my orders").
+     * *
+     * Paginated like {@code GET /api/orders}. Recently viewed pages are cached per customer and dropped as soon as
+     * the customer places an order or one of their orders changes status.
+     * *
+     * GET /api/orders/customer/cust-42
+     * GET /api/orders/customer/cust-42?limit=20&cursor=2025-08-08T10:15:30.123_66b4c9e2f1a2b34c5d6e7f80
+     *
+     * @param customerId the customer whose orders are returned
+     * @param cursor     optional cursor of the page to fetch (value of {@value #NEXT_CURSOR_HEADER})
+     * @param limit      optional page size (capped by {@code order.page.max-size})
+     * @return list of {@link OrderResponse}
+     */
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<List<OrderResponse>> getCustomerOrders(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return toPagedResponse(service.getCustomerOrders(customerId, cursor, limit));
     }
 
     /**
      * Creates a new order and returns the saved order details.
+     * *
+     * With an {@value #IDEMPOTENCY_KEY_HEADER} header (unique per order attempt, e.g. a UUID) the request is safe
+     * to retry: the order is placed once and retries with the same key and body receive the same response.
+     * A retry arriving while the first request is still running on another instance gets 409 Conflict; reusing a
+     * key for a different body gets 422. Keys are scoped to the authenticated user.
      *
      * POST /api/orders
-     * @param request the {@link CreateOrderRequest} containing customer and item details
+     * @param request        the {@link CreateOrderRequest} containing customer and item details
+     * @param idempotencyKey optional client-generated key identifying this order attempt
      * @return the newly created {@link OrderResponse}
      * @throws IllegalArgumentException if any item exceeds available stock
      */
     @PostMapping
     public OrderResponse createOrder(
             @Valid @RequestBody CreateOrderRequest request,
-            @RequestHeader("Authorization") String authHeader
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal Jwt jwt
     ){
         // Strip the "Bearer " prefix to get the raw token
         String token = authHeader.replace("Bearer ", "");
-        return service.placeOrder(request, token);
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return service.placeOrder(request, token);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    IDEMPOTENCY_KEY_HEADER + " must not be longer than " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters"
+            );
+        }
+        return idempotencyStore.execute(
+                jwt.getSubject() + ":" + idempotencyKey,
+                request,
+                () -> service.placeOrder(request, token)
+        );
+    }
+
+    /**
+     * Places many orders at once (marketplace partners, replay jobs).
+     * - > POST /api/orders/batch
+     * - Stock and prices are looked up once for all products of the batch; orders are stored with one bulk write.
+     * - Returns one result per order, in request order: {@code ACCEPTED} with the new order ID, or
+     *   {@code REJECTED} with a reason. One bad order does not reject the others.
+     *
+     * @param request the orders to place (at most {@code order.bulk.max-size})
+     * @return {@link ResponseEntity} containing the {@link BatchOrderResponse}
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchOrderResponse> createOrders(
+            @Valid @RequestBody BatchOrderRequest request,
+            @RequestHeader("Authorization") String authHeader
+    ){
+        String token = authHeader.replace("Bearer ", "");
+        return ResponseEntity.ok(service.placeOrders(request.orders(), token));
     }
 
 
@@ -87,6 +285,8 @@ public class OrderController {
      * - Common values include {@code PENDING}, {@code SHIPPED}, {@code DELIVERED}, etc.
      * - > PATCH /api/orders/abc123/status
      * - On success, returns the updated {@link OrderResponse} with the new status.
+     * - Returns 409 Conflict if the order's current status does not allow the transition
+     *   (e.g. {@code DELIVERED} -> {@code PENDING}).
      *
      * @param id   the unique ID of the order to be updated (path variable)
      * @param body the request body containing the new {@link Status}
@@ -100,4 +300,47 @@ public class OrderController {
         OrderResponse updated = service.updateOrderStatus(id, body.status());
         return ResponseEntity.ok(updated);
     }
+
+    /**
+     * Moves many orders to the same status at once, e.g. a whole shipping wave to {@code SHIPPED}.
+     * - > PATCH /api/orders/status
+     * - The update runs as a single MongoDB bulk write.
+     * - Returns one result per order: {@code UPDATED}, {@code NOT_FOUND} or {@code ILLEGAL_TRANSITION}.
+     *
+     * @param body the order IDs and the new {@link Status}
+     * @return {@link ResponseEntity} containing the {@link BulkStatusUpdateResponse}
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateOrderStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest body
+    ){
+        BulkStatusUpdateResponse result = service.updateOrderStatuses(body.orderIds(), body.status());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Builds the filter from request parameters; the status is parsed case-insensitively like in JSON bodies.
+     * Shared with {@link ReactiveOrderController} and {@link ReportController}.
+     */
+    static OrderFilterRequest toFilter(LocalDate dateFrom, LocalDate dateTo, String status, String customerId) {
+        return new OrderFilterRequest(
+                dateFrom,
+                dateTo,
+                status != null ? Status.fromValue(status) : null,
+                customerId
+        );
+    }
+
+    /**
+     * Converts a page into a response whose body is the list of items and whose
+     * {@value #NEXT_CURSOR_HEADER} header carries the cursor of the next page, if any.
+     * Shared with {@link ReactiveOrderController}.
+     */
+    static <T> ResponseEntity<List<T>> toPagedResponse(OrderPageResponse<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
 }
@@ -0,0 +1,60 @@
+package com.owr.order_service.controller;
+
+
+import com.owr.order_service.dto.response.OrderEvent;
+import com.owr.order_service.service.events.OrderEventFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderEventController
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 9:05 PM
+ * Description: Exposes the order event feed as Server-Sent Events.
+ * - Serves both the servlet and the {@code reactive} stack; an open feed holds no request thread on either.
+ =================================================================================*/
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/orders")
+public class OrderEventController {
+
+    /**
+     * Standard SSE request header carrying the {@code id} of the last event a reconnecting client received.
+     */
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final OrderEventFeed eventFeed;
+
+    /**
+     * Streams new orders and status changes as they are written, instead of polling {@code GET /api/orders}.
+     * *
+     *  - Events are named {@code ORDER_PLACED} or {@code STATUS_CHANGED}; the data is an {@link OrderEvent}.
+     *  - Every event carries an {@code id}. Reconnecting with that value in {@value #LAST_EVENT_ID_HEADER} (or in
+     *    {@code lastEventId}, for clients that cannot set headers) continues right after that event.
+     *  - A {@code resync} event means the resume point is too old; re-read the orders and subscribe without an ID.
+     *  - On the servlet stack the connection is closed after {@code spring.mvc.async.request-timeout}; clients
+     *    simply reconnect with their last event ID.
+     * *
+     * GET /api/orders/events
+     * GET /api/orders/events   (header Last-Event-ID: 8263F0A1B2000000012B0229296E04...)
+     *
+     * @param lastEventIdHeader optional ID of the last event received, set by SSE clients on reconnect
+     * @param lastEventId       the same as a query parameter; the header takes precedence
+     * @return the event stream
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<OrderEvent>> streamOrderEvents(
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId
+    ) {
+        return eventFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
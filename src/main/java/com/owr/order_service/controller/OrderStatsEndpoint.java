@@ -0,0 +1,43 @@
+package com.owr.order_service.controller;
+
+
+import com.owr.order_service.dto.response.OrderStatsResponse;
+import com.owr.order_service.service.stats.OrderStatsStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderStatsEndpoint
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:20 PM
+ * Description: Actuator endpoint to inspect and rebuild the incrementally maintained order statistics.
+ =================================================================================*/
+
+/**
+ * Exposed under {@code /actuator/orderstats} (must be listed in {@code management.endpoints.web.exposure.include}).
+ * - GET  /actuator/orderstats -> current statistics (default day range)
+ * - POST /actuator/orderstats -> flushes pending counters, recomputes all statistics from the orders and returns them
+ * The POST operation needs {@code management.admin-authority} (see {@code SecurityConfig}): it aggregates all orders.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "orderstats")
+public class OrderStatsEndpoint {
+
+    private final OrderStatsStore statsStore;
+
+    @ReadOperation
+    public OrderStatsResponse stats() {
+        return statsStore.read(null, null);
+    }
+
+    @WriteOperation
+    public OrderStatsResponse rebuild() {
+        statsStore.rebuild();
+        return statsStore.read(null, null);
+    }
+}
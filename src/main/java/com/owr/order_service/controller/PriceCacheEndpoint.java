@@ -0,0 +1,62 @@
+package com.owr.order_service.controller;
+
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.owr.order_service.service.client.ProductPriceCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*=================================================================================
+ * Project: order-service
+ * File: PriceCacheEndpoint
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:45 AM
+ * Description: Actuator endpoint to inspect and invalidate the product price cache.
+ =================================================================================*/
+
+/**
+ * Exposed under {@code /actuator/pricecache} (must be listed in {@code management.endpoints.web.exposure.include}).
+ * - GET    /actuator/pricecache             -> size and hit/miss/eviction statistics
+ * - DELETE /actuator/pricecache             -> invalidates all cached prices
+ * - DELETE /actuator/pricecache/{productId} -> invalidates the price of one product
+ * The DELETE operations need {@code management.admin-authority} (see {@code SecurityConfig}): wiping the cache sends
+ * every price lookup to the product service.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "pricecache")
+public class PriceCacheEndpoint {
+
+    private final ProductPriceCache priceCache;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        CacheStats stats = priceCache.stats();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", priceCache.size());
+        body.put("hitCount", stats.hitCount());
+        body.put("missCount", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("loadFailureCount", stats.loadFailureCount());
+        body.put("evictionCount", stats.evictionCount());
+        return body;
+    }
+
+    @DeleteOperation
+    public void invalidateAll() {
+        priceCache.invalidateAll();
+    }
+
+    @DeleteOperation
+    public void invalidate(@Selector Long productId) {
+        priceCache.invalidate(productId);
+    }
+}
@@ -0,0 +1,189 @@
+package com.owr.order_service.controller;
+
+
+import com.owr.order_service.dto.request.BatchOrderRequest;
+import com.owr.order_service.dto.request.BulkStatusUpdateRequest;
+import com.owr.order_service.dto.request.CreateOrderRequest;
+import com.owr.order_service.dto.request.OrderFilterRequest;
+import com.owr.order_service.dto.response.BatchOrderResponse;
+import com.owr.order_service.dto.response.BulkStatusUpdateResponse;
+import com.owr.order_service.dto.response.OrderResponse;
+import com.owr.order_service.dto.response.OrderStatsResponse;
+import com.owr.order_service.dto.response.OrderSummaryResponse;
+import com.owr.order_service.service.ReactiveOrderService;
+import com.owr.order_service.service.idempotency.IdempotencyStore;
+import com.owr.order_service.service.stats.OrderStatsStore;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.owr.order_service.controller.OrderController.IDEMPOTENCY_KEY_HEADER;
+import static com.owr.order_service.controller.OrderController.toFilter;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ReactiveOrderController
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 3:10 PM
+ * Description: WebFlux variant of {@link OrderController}, active with the {@code reactive} profile.
+ * - Same paths, parameters, headers, bodies and status codes as {@link OrderController}; see there for details.
+ =================================================================================*/
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/api/orders")
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService service;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderStatsStore statsStore;
+
+    /**
+     * Upper bound for the length of an idempotency key.
+     */
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    /**
+     * GET /api/orders (all orders or the filtered orders, newest first)
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<OrderResponse>>> getAllOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        OrderFilterRequest filter = toFilter(dateFrom, dateTo, status, customerId);
+        if (!filter.isEmpty()) {
+            return service.getOrdersByFilter(filter, cursor, limit).map(OrderController::toPagedResponse);
+        }
+        return service.getOrders(cursor, limit).map(OrderController::toPagedResponse);
+    }
+
+    /**
+     * GET /api/orders/export (newline-delimited JSON, written as the database cursor yields the orders)
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderResponse> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customerId
+    ) {
+        return service.streamOrders(toFilter(dateFrom, dateTo, status, customerId));
+    }
+
+    /**
+     * GET /api/orders/summary
+     */
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<List<OrderSummaryResponse>>> getOrderSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return service.getOrderSummaries(cursor, limit).map(OrderController::toPagedResponse);
+    }
+
+    /**
+     * GET /api/orders/stats (two small blocking reads, moved off the event loop)
+     */
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<OrderStatsResponse>> getOrderStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo
+    ) {
+        return Mono.fromCallable(() -> statsStore.read(dateFrom, dateTo))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * GET /api/orders/customer/{customerId}
+     */
+    @GetMapping("/customer/{customerId}")
+    public Mono<ResponseEntity<List<OrderResponse>>> getCustomerOrders(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return service.getCustomerOrders(customerId, cursor, limit).map(OrderController::toPagedResponse);
+    }
+
+    /**
+     * POST /api/orders
+     * *
+     * Requests with an {@value OrderController#IDEMPOTENCY_KEY_HEADER} go through the (blocking)
+     * {@link IdempotencyStore} on the bounded-elastic scheduler; all others run fully non-blocking.
+     */
+    @PostMapping
+    public Mono<OrderResponse> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal Jwt jwt
+    ){
+        // Strip the "Bearer " prefix to get the raw token
+        String token = authHeader.replace("Bearer ", "");
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return service.placeOrder(request, token);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return Mono.error(new IllegalArgumentException(
+                    IDEMPOTENCY_KEY_HEADER + " must not be longer than " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters"
+            ));
+        }
+        return Mono.fromCallable(() -> idempotencyStore.execute(
+                        jwt.getSubject() + ":" + idempotencyKey,
+                        request,
+                        () -> service.placeOrder(request, token).block()
+                ))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * POST /api/orders/batch
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchOrderResponse>> createOrders(
+            @Valid @RequestBody BatchOrderRequest request,
+            @RequestHeader("Authorization") String authHeader
+    ){
+        String token = authHeader.replace("Bearer ", "");
+        return service.placeOrders(request.orders(), token).map(ResponseEntity::ok);
+    }
+
+    /**
+     * PATCH /api/orders/{id}/status
+     */
+    @PatchMapping("/{id}/status")
+    public Mono<ResponseEntity<OrderResponse>> updateOrderStatus(
+            @PathVariable String id,
+            @RequestBody OrderController.UpdateStatusRequest body
+    ){
+        return service.updateOrderStatus(id, body.status()).map(ResponseEntity::ok);
+    }
+
+    /**
+     * PATCH /api/orders/status
+     */
+    @PatchMapping("/status")
+    public Mono<ResponseEntity<BulkStatusUpdateResponse>> updateOrderStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest body
+    ){
+        return service.updateOrderStatuses(body.orderIds(), body.status()).map(ResponseEntity::ok);
+    }
+}
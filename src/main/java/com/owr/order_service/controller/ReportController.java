@@ -0,0 +1,116 @@
+package com.owr.order_service.controller;
+
+
+import com.owr.order_service.dto.request.OrderFilterRequest;
+import com.owr.order_service.dto.response.BasketSizeReport;
+import com.owr.order_service.dto.response.DailyRevenueReport;
+import com.owr.order_service.dto.response.ProductSalesReport;
+import com.owr.order_service.service.report.OrderReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static com.owr.order_service.controller.OrderController.toFilter;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ReportController
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 8:15 PM
+ * Description: Exposes reporting endpoints computed by MongoDB aggregation pipelines.
+ * - Serves both the servlet and the {@code reactive} stack: results are returned as {@link Mono}s, so the
+ *   aggregation runs on the bounded-elastic scheduler instead of holding a request thread or the event loop.
+ =================================================================================*/
+
+/**
+ * All reports accept the same window parameters:
+ *  - {@code dateFrom}, {@code dateTo}: whole days, {@code dateTo} inclusive; default to the last
+ *    {@code order.report.default-days} days up to today; windows longer than {@code order.report.max-days} days
+ *    are rejected with 400
+ *  - {@code status}, {@code customerId}: optional filters like on {@code GET /api/orders}
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final OrderReportService reportService;
+
+    /**
+     * Returns the best selling products of the window.
+     * *
+     * GET /api/reports/top-products
+     * GET /api/reports/top-products?dateFrom=2025-08-01&dateTo=2025-08-31&rankBy=revenue&limit=20
+     *
+     * @param rankBy {@code units} (default) or {@code revenue}
+     * @param limit  optional number of products (capped by {@code order.report.top-products.max-limit})
+     * @return list of {@link ProductSalesReport}, best first
+     */
+    @GetMapping("/top-products")
+    public Mono<List<ProductSalesReport>> topProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String rankBy,
+            @RequestParam(required = false) Integer limit
+    ) {
+        OrderFilterRequest filter = toFilter(dateFrom, dateTo, status, customerId);
+        return run(() -> reportService.topProducts(filter, rankBy, limit));
+    }
+
+    /**
+     * Returns orders, revenue and average order value per day of the window.
+     * *
+     * GET /api/reports/revenue-per-day?dateFrom=2025-08-01&dateTo=2025-08-31
+     *
+     * @return list of {@link DailyRevenueReport}, oldest first; days without orders are omitted
+     */
+    @GetMapping("/revenue-per-day")
+    public Mono<List<DailyRevenueReport>> revenuePerDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customerId
+    ) {
+        OrderFilterRequest filter = toFilter(dateFrom, dateTo, status, customerId);
+        return run(() -> reportService.revenuePerDay(filter));
+    }
+
+    /**
+     * Returns average and maximum basket sizes of the window.
+     * *
+     * GET /api/reports/basket-size?status=Delivered
+     *
+     * @return the {@link BasketSizeReport}
+     */
+    @GetMapping("/basket-size")
+    public Mono<BasketSizeReport> basketSize(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customerId
+    ) {
+        OrderFilterRequest filter = toFilter(dateFrom, dateTo, status, customerId);
+        return run(() -> reportService.basketSize(filter));
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Runs a (blocking) report on the bounded-elastic scheduler.
+     */
+    private static <T> Mono<T> run(Callable<T> report) {
+        return Mono.fromCallable(report).subscribeOn(Schedulers.boundedElastic());
+    }
+    //====================================================================
+}
@@ -0,0 +1,27 @@
+package com.owr.order_service.dto.request;
+
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/*=================================================================================
+ * Project: order-service
+ * File: BatchOrderRequest
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:40 PM
+ * Description: Request body for ingesting many orders at once (marketplace partners, replay jobs).
+ * {
+ *   "orders": [
+ *     { "customerId": "c-1", "items": [ { "productId": 1, "quantity": 2 } ] },
+ *     { "customerId": "c-2", "items": [ { "productId": 3, "quantity": 1 } ] }
+ *   ]
+ * }
+ =================================================================================*/
+public record BatchOrderRequest(
+        /**
+         * The orders to place. Must not be empty.
+         * Each order is validated on its own, so one malformed order does not reject the whole batch.
+         */
+        @NotEmpty List<CreateOrderRequest> orders
+) { }
@@ -0,0 +1,30 @@
+package com.owr.order_service.dto.request;
+
+
+import com.owr.order_service.model.Status;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/*=================================================================================
+ * Project: order-service
+ * File: BulkStatusUpdateRequest
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:00 PM
+ * Description: Request body for moving many orders to the same status at once.
+ * {
+ *   "orderIds": ["66b4c9e2f1a2b34c5d6e7f80", "66b4c9e2f1a2b34c5d6e7f81"],
+ *   "status": "SHIPPED"
+ * }
+ =================================================================================*/
+public record BulkStatusUpdateRequest(
+        /**
+         * IDs of the orders to update. Must not be empty.
+         */
+        @NotEmpty List<String> orderIds,
+        /**
+         * The status to move every order to.
+         */
+        @NotNull Status status
+) { }
@@ -0,0 +1,29 @@
+package com.owr.order_service.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/*=================================================================================
+ * Project: order-service
+ * File: InventoryReservationRequest
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 10:05 AM
+ * Description: Used to reserve (decrease) stock by a quantity - without the price
+ =================================================================================*/
+
+/**
+ * @param productId      the product whose stock is decreased
+ * @param quantity       the quantity to decrease by
+ * @param idempotencyKey key of this line within a bulk request; omitted for single requests, which carry it in the
+ *                       {@code Idempotency-Key} header
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InventoryReservationRequest(
+        Long productId,
+        int quantity,
+        String idempotencyKey
+) {
+
+    public InventoryReservationRequest(Long productId, int quantity) {
+        this(productId, quantity, null);
+    }
+}
@@ -0,0 +1,37 @@
+package com.owr.order_service.dto.request;
+
+
+import com.owr.order_service.model.Status;
+
+import java.time.LocalDate;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderFilterRequest
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 5:30 PM
+ * Description: Optional filters for listing and exporting orders.
+ =================================================================================*/
+
+/**
+ * All fields are optional.
+ *
+ * @param dateFrom   first day to include (inclusive); if only {@code dateFrom} is given, only that day is returned
+ * @param dateTo     last day to include (inclusive)
+ * @param status     only orders in this {@link Status}
+ * @param customerId only orders of this customer
+ */
+public record OrderFilterRequest(
+        LocalDate dateFrom,
+        LocalDate dateTo,
+        Status status,
+        String customerId
+) {
+
+    /**
+     * @return true if no filter is set
+     */
+    public boolean isEmpty() {
+        return dateFrom == null && dateTo == null && status == null && customerId == null;
+    }
+}
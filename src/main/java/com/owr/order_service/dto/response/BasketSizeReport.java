@@ -0,0 +1,24 @@
+package com.owr.order_service.dto.response;
+
+/*=================================================================================
+ * Project: order-service
+ * File: BasketSizeReport
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:40 PM
+ * Description: Basket size statistics of the orders within a report window.
+ =================================================================================*/
+
+/**
+ * @param orders            number of matching orders
+ * @param averageLines      average number of line items per order
+ * @param averageUnits      average number of units (summed quantities) per order
+ * @param maxUnits          largest number of units in one order
+ * @param averageOrderValue average total price per order
+ */
+public record BasketSizeReport(
+        long orders,
+        double averageLines,
+        double averageUnits,
+        long maxUnits,
+        double averageOrderValue
+) { }
@@ -0,0 +1,23 @@
+package com.owr.order_service.dto.response;
+
+
+import java.util.List;
+
+/*=================================================================================
+ * Project: order-service
+ * File: BatchOrderResponse
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:50 PM
+ * Description: Response DTO of a batch ingest, with one result per submitted order.
+ =================================================================================*/
+
+/**
+ * @param accepted number of orders stored
+ * @param rejected number of orders not stored
+ * @param results  one {@link BatchOrderResult} per submitted order, in request order
+ */
+public record BatchOrderResponse(
+        int accepted,
+        int rejected,
+        List<BatchOrderResult> results
+) { }
@@ -0,0 +1,40 @@
+package com.owr.order_service.dto.response;
+
+
+/*=================================================================================
+ * Project: order-service
+ * File: BatchOrderResult
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:45 PM
+ * Description: Outcome of a single order within a batch ingest.
+ =================================================================================*/
+
+/**
+ * @param index   position of the order in the request
+ * @param outcome what happened to the order
+ * @param orderId the ID of the created order, or {@code null} if it was rejected
+ * @param reason  why the order was rejected, or {@code null} if it was accepted
+ */
+public record BatchOrderResult(
+        int index,
+        Outcome outcome,
+        String orderId,
+        String reason
+) {
+
+    public enum Outcome {
+        // Order was stored; its stock decrement is queued in the order's outbox
+        ACCEPTED,
+
+        // Order was not stored (invalid, insufficient stock or write error)
+        REJECTED
+    }
+
+    public static BatchOrderResult accepted(int index, String orderId) {
+        return new BatchOrderResult(index, Outcome.ACCEPTED, orderId, null);
+    }
+
+    public static BatchOrderResult rejected(int index, String reason) {
+        return new BatchOrderResult(index, Outcome.REJECTED, null, reason);
+    }
+}
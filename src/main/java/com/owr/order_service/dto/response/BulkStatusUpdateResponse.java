@@ -0,0 +1,25 @@
+package com.owr.order_service.dto.response;
+
+
+import com.owr.order_service.model.Status;
+
+import java.util.List;
+
+/*=================================================================================
+ * Project: order-service
+ * File: BulkStatusUpdateResponse
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:10 PM
+ * Description: Response DTO of a bulk status update, with one result per requested order.
+ =================================================================================*/
+
+/**
+ * @param status  the requested status
+ * @param updated number of orders moved to the requested status
+ * @param results one {@link StatusUpdateResult} per distinct requested order ID, in request order
+ */
+public record BulkStatusUpdateResponse(
+        Status status,
+        int updated,
+        List<StatusUpdateResult> results
+) { }
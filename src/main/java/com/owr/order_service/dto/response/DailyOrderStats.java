@@ -0,0 +1,22 @@
+package com.owr.order_service.dto.response;
+
+import java.time.LocalDate;
+
+/*=================================================================================
+ * Project: order-service
+ * File: DailyOrderStats
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 6:45 PM
+ * Description: Orders placed and revenue of one day.
+ =================================================================================*/
+
+/**
+ * @param day     the day the orders were placed on (server time zone)
+ * @param orders  number of orders placed that day
+ * @param revenue summed total price of those orders
+ */
+public record DailyOrderStats(
+        LocalDate day,
+        long orders,
+        double revenue
+) { }
@@ -0,0 +1,24 @@
+package com.owr.order_service.dto.response;
+
+import java.time.LocalDate;
+
+/*=================================================================================
+ * Project: order-service
+ * File: DailyRevenueReport
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:40 PM
+ * Description: Orders and revenue of one day within a report window.
+ =================================================================================*/
+
+/**
+ * @param day               the day (server time zone)
+ * @param orders            number of matching orders placed that day
+ * @param revenue           summed total price of those orders
+ * @param averageOrderValue average total price of those orders
+ */
+public record DailyRevenueReport(
+        LocalDate day,
+        long orders,
+        double revenue,
+        double averageOrderValue
+) { }
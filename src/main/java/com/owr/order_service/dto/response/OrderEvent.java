@@ -0,0 +1,39 @@
+package com.owr.order_service.dto.response;
+
+import com.owr.order_service.model.Status;
+
+import java.time.Instant;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderEvent
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 8:40 PM
+ * Description: Event of the order feed ({@code GET /api/orders/events}), derived from a MongoDB change event.
+ =================================================================================*/
+
+/**
+ * @param type       what happened
+ * @param orderId    the order
+ * @param customerId the customer who placed the order
+ * @param status     the status of the order after the change
+ * @param totalPrice the total price of the order
+ * @param occurredAt when the change was committed (cluster time)
+ */
+public record OrderEvent(
+        Type type,
+        String orderId,
+        String customerId,
+        Status status,
+        Double totalPrice,
+        Instant occurredAt
+) {
+
+    public enum Type {
+        // A new order was stored
+        ORDER_PLACED,
+
+        // The status of an order changed
+        STATUS_CHANGED
+    }
+}
@@ -0,0 +1,23 @@
+package com.owr.order_service.dto.response;
+
+import java.util.List;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderPageResponse
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 2:30 PM
+ * Description: One page of orders returned by a cursor-paginated query.
+ =================================================================================*/
+
+/**
+ * A page of orders plus the cursor of the next page.
+ *
+ * @param items      the orders of this page, newest first
+ * @param <T>        the representation of an order ({@link OrderResponse} or {@link OrderSummaryResponse})
+ * @param nextCursor opaque cursor to pass as {@code cursor} to fetch the next page, or {@code null} on the last page
+ */
+public record OrderPageResponse<T>(
+        List<T> items,
+        String nextCursor
+) { }
@@ -1,6 +1,7 @@
 package com.owr.order_service.dto.response;
 
 import com.owr.order_service.model.Status;
+import com.owr.order_service.model.StockOutbox;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,6 +24,9 @@ import java.util.List;
  * @param items      the list of items included in the order, each represented as {@link OrderLineItemResponse}
  * @param status     the current {@link Status} of the order (e.g., Pending, Shipped, Delivered)
  * @param totalPrice the total price of all items in the order
+ * @param stockState the state of the order's stock decrement; {@code REJECTED} means the inventory service had not
+ *                   enough stock and the order is oversold, {@code FAILED} that the decrement was given up.
+ *                   {@code null} for orders stored before the stock outbox existed
  */
 public record OrderResponse(
         String id,
@@ -30,5 +34,6 @@ public record OrderResponse(
         String customerId,
         List<OrderLineItemResponse> items,
         Status status,
-        double totalPrice
+        double totalPrice,
+        StockOutbox.State stockState
 ) { }
@@ -0,0 +1,28 @@
+package com.owr.order_service.dto.response;
+
+import com.owr.order_service.model.Status;
+
+import java.util.List;
+import java.util.Map;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderStatsResponse
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 6:45 PM
+ * Description: Response DTO of the order statistics endpoint.
+ =================================================================================*/
+
+/**
+ * @param orders         number of orders placed overall
+ * @param revenue        summed total price of all orders placed
+ * @param ordersByStatus number of orders currently in each status (every status is present)
+ * @param days           orders and revenue per day of the requested range, oldest first; days without orders
+ *                       are omitted
+ */
+public record OrderStatsResponse(
+        long orders,
+        double revenue,
+        Map<Status, Long> ordersByStatus,
+        List<DailyOrderStats> days
+) { }
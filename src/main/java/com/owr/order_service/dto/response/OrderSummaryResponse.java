@@ -0,0 +1,27 @@
+package com.owr.order_service.dto.response;
+
+import com.owr.order_service.model.Status;
+
+import java.time.LocalDateTime;
+/*=================================================================================
+ * Project: order-service
+ * File: OrderSummaryResponse
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 4:25 PM
+ * Description: Lightweight response DTO for order list views (no line items).
+ =================================================================================*/
+
+/**
+ * Returned by {@code GET /api/orders/summary} for dashboards that only need the headline fields of an order.
+ *
+ * @param id         the unique identifier of the order
+ * @param status     the current {@link Status} of the order
+ * @param totalPrice the total price of all items in the order
+ * @param createdAt  the timestamp indicating when the order was created
+ */
+public record OrderSummaryResponse(
+        String id,
+        Status status,
+        double totalPrice,
+        LocalDateTime createdAt
+) { }
@@ -0,0 +1,22 @@
+package com.owr.order_service.dto.response;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ProductSalesReport
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:40 PM
+ * Description: Sales of one product within a report window (one row of the top products report).
+ =================================================================================*/
+
+/**
+ * @param productId the product
+ * @param units     summed quantity ordered
+ * @param revenue   summed quantity x unit price
+ * @param lines     number of order line items with this product
+ */
+public record ProductSalesReport(
+        Long productId,
+        long units,
+        double revenue,
+        long lines
+) { }
@@ -0,0 +1,35 @@
+package com.owr.order_service.dto.response;
+
+
+import com.owr.order_service.model.Status;
+
+/*=================================================================================
+ * Project: order-service
+ * File: StatusUpdateResult
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:05 PM
+ * Description: Outcome of the status update of a single order within a bulk update.
+ =================================================================================*/
+
+/**
+ * @param orderId        the ID of the order
+ * @param outcome        what happened to the order
+ * @param previousStatus the status the order had before the update, or {@code null} if it was not found
+ */
+public record StatusUpdateResult(
+        String orderId,
+        Outcome outcome,
+        Status previousStatus
+) {
+
+    public enum Outcome {
+        // Status was changed to the requested one
+        UPDATED,
+
+        // No order exists with this ID
+        NOT_FOUND,
+
+        // The order's current status does not allow the requested transition
+        ILLEGAL_TRANSITION
+    }
+}
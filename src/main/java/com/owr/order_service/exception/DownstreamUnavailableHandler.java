@@ -0,0 +1,66 @@
+package com.owr.order_service.exception;
+
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/*=================================================================================
+ * Project: order-service
+ * File: DownstreamUnavailableHandler
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 10:05 PM
+ * Description: Turns fast-failed downstream calls (open circuit, full bulkhead, full lookup executor) into 503
+ * Service Unavailable.
+ =================================================================================*/
+
+/**
+ * The Resilience4j exceptions come from a library and cannot carry {@code @ResponseStatus}, so they are mapped
+ * here. Clients get a {@code Retry-After} hint of {@code resilience.retry-after-seconds}.
+ */
+@Slf4j
+@RestControllerAdvice
+public class DownstreamUnavailableHandler {
+
+    @Value("${resilience.retry-after-seconds:10}")
+    private long retryAfterSeconds;
+
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<ProblemDetail> circuitOpen(CallNotPermittedException e) {
+        log.debug("Rejected by open circuit breaker {}", e.getCausingCircuitBreakerName());
+        return unavailable("A downstream service is unavailable; please retry later");
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ProblemDetail> bulkheadFull(BulkheadFullException e) {
+        log.debug("Rejected by full bulkhead: {}", e.getMessage());
+        return unavailable("Too many concurrent requests to a downstream service; please retry later");
+    }
+
+    /**
+     * The lookup executor's queue is full (Spring's {@code TaskRejectedException} is a subclass).
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ProblemDetail> executorSaturated(RejectedExecutionException e) {
+        log.debug("Rejected by saturated executor: {}", e.getMessage());
+        return unavailable("Too many concurrent requests to a downstream service; please retry later");
+    }
+
+    //=================== Helper Functions ===============================
+
+    private ResponseEntity<ProblemDetail> unavailable(String detail) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, detail));
+    }
+    //====================================================================
+}
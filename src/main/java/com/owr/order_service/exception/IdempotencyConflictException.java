@@ -0,0 +1,19 @@
+package com.owr.order_service.exception;
+
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/*=================================================================================
+ * Project: order-service
+ * File: IdempotencyConflictException
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 9:20 PM
+ * Description: Incase a request with the same Idempotency-Key is still being processed elsewhere.
+ =================================================================================*/
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
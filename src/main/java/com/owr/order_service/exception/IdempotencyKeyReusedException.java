@@ -0,0 +1,19 @@
+package com.owr.order_service.exception;
+
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/*=================================================================================
+ * Project: order-service
+ * File: IdempotencyKeyReusedException
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 9:25 PM
+ * Description: Incase an Idempotency-Key is sent again with a different request body.
+ =================================================================================*/
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
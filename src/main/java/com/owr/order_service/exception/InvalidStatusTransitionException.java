@@ -0,0 +1,19 @@
+package com.owr.order_service.exception;
+
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/*=================================================================================
+ * Project: order-service
+ * File: InvalidStatusTransitionException
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 6:20 PM
+ * Description: Incase an order cannot move from its current status to the requested one.
+ =================================================================================*/
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InvalidStatusTransitionException extends RuntimeException {
+    public InvalidStatusTransitionException(String message) {
+        super(message);
+    }
+}
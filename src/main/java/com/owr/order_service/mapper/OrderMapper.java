@@ -4,16 +4,20 @@ import com.owr.order_service.dto.request.CreateOrderRequest;
 import com.owr.order_service.dto.request.OrderItemRequest;
 import com.owr.order_service.dto.response.OrderLineItemResponse;
 import com.owr.order_service.dto.response.OrderResponse;
+import com.owr.order_service.dto.response.OrderSummaryResponse;
 import com.owr.order_service.model.Order;
 import com.owr.order_service.model.OrderLineItem;
+import com.owr.order_service.model.OrderSummary;
 import com.owr.order_service.model.Status;
 import com.owr.order_service.service.client.InventoryClient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /*=================================================================================
  * Project: order-service
@@ -28,6 +32,7 @@ import java.util.Map;
  * This includes mapping:
  * - {@link CreateOrderRequest} ➝ {@link Order}
  * - {@link Order} ➝ {@link OrderResponse}
+ * - {@link OrderSummary} ➝ {@link OrderSummaryResponse}
  * Used by {@code OrderServiceImpl} to translate client input into persistent models, and vice versa.
  */
 @Component
@@ -57,9 +62,7 @@ public class OrderMapper {
 
 
         //double totalPrice = calculateTotalPrice(request.items());
-        double total = items.stream()
-                .mapToDouble(li -> li.getPrice() * li.getQuantity())
-                .sum();
+        double total = totalPrice(items);
 
         // Construct and return the Order entity with the mapped items
         Order order = new Order();
@@ -85,10 +88,53 @@ public class OrderMapper {
                 order.getCustomerId(),
                 mapToItemResponse(order.getItems()),
                 order.getStatus(),
-                order.getTotalPrice()
+                order.getTotalPrice(),
+                order.getOutbox() != null ? order.getOutbox().getState() : null
         );
     }
 
+    /**
+     * Converts an {@link OrderSummary} projection into an {@link OrderSummaryResponse} DTO.
+     *
+     * @param summary the projected order from the database
+     * @return a DTO containing the headline fields of the order
+     */
+    public OrderSummaryResponse toSummaryResponse(OrderSummary summary) {
+        return new OrderSummaryResponse(
+                summary.getId(),
+                summary.getStatus(),
+                summary.getTotalPrice(),
+                summary.getCreatedAt()
+        );
+    }
+
+    /**
+     * Calculates the total price of priced line items (price times quantity, summed).
+     *
+     * @param items the line items with their unit prices
+     * @return the total price
+     */
+    public static double totalPrice(List<OrderLineItem> items) {
+        return items.stream()
+                .mapToDouble(li -> li.getPrice() * li.getQuantity())
+                .sum();
+    }
+
+    /**
+     * Sums the requested quantity per product, keeping the order in which products first appear.
+     *
+     * @param items the items of an order request
+     * @return total requested quantity per product ID
+     */
+    public static Map<Long, Integer> quantityByProductId(List<OrderItemRequest> items) {
+        return items.stream()
+                .collect(Collectors.groupingBy(
+                        OrderItemRequest::productId,                    // key: Long productId
+                        LinkedHashMap::new,
+                        Collectors.summingInt(OrderItemRequest::quantity) // val: total requested quantity
+                ));
+    }
+
     //=================== Helper Functions ===============================
 
     /**
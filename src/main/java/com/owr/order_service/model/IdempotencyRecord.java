@@ -0,0 +1,75 @@
+package com.owr.order_service.model;
+
+
+import com.owr.order_service.dto.response.OrderResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/*=================================================================================
+ * Project: order-service
+ * File: IdempotencyRecord
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 9:05 PM
+ * Description: Stored outcome of a request sent with an Idempotency-Key.
+ * - Shared by all instances; removed by MongoDB once {@code expiresAt} has passed (TTL index).
+ =================================================================================*/
+@Document(collection = "idempotency_keys")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    public enum State {
+        // The first request with this key is still running
+        IN_PROGRESS,
+
+        // The first request completed; its response is replayed for duplicates
+        COMPLETED
+    }
+
+    /**
+     * The idempotency key, scoped to the caller ({@code <subject>:<key>}).
+     */
+    @Id
+    private String id;
+
+    /**
+     * SHA-256 of the request body; a key sent with a different body is rejected.
+     */
+    private String requestHash;
+
+    /**
+     * Current state of the request.
+     */
+    private State state;
+
+    /**
+     * While {@link State#IN_PROGRESS}: after this time the executing instance is presumed dead and another
+     * instance may take the key over.
+     */
+    private LocalDateTime lockedUntil;
+
+    /**
+     * While {@link State#IN_PROGRESS}: a token identifying the current executor, renewed on every takeover. Only
+     * the holder of the token may complete or release the record, so an executor whose lock was taken over cannot
+     * overwrite the outcome of its successor.
+     */
+    private String owner;
+
+    /**
+     * The response of the completed request, {@code null} while in progress.
+     */
+    private OrderResponse response;
+
+    /**
+     * When the record is removed by MongoDB.
+     */
+    @Indexed(name = "expiresAt_ttl", expireAfter = "0s")
+    private LocalDateTime expiresAt;
+}
@@ -5,6 +5,9 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,7 +20,23 @@ import java.util.List;
  * Description: Represents an order placed by a customer.
  * - Order document to be stored in MongoDB
  * -  Includes timestamp and list of ordered items.
+ * -  Indexes back the repository queries; they are created at startup by {@code OrderIndexInitializer}.
  =================================================================================*/
+@Document(collection = "order")
+@CompoundIndexes({
+        // OrderRepository.findByCustomerId and range queries by customer; _id keeps ties in a stable order
+        @CompoundIndex(name = "customerId_createdAt_id", def = "{'customerId': 1, 'createdAt': -1, '_id': -1}"),
+        // OrderRepository.findByStatus and range queries by status
+        @CompoundIndex(name = "status_createdAt_id", def = "{'status': 1, 'createdAt': -1, '_id': -1}"),
+        // OrderRepository.findByCreatedAtBetween and unfiltered range queries
+        @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        // StockOutboxDispatcher: pending stock decrements that are due; dispatched ones drop out of the index
+        @CompoundIndex(
+                name = "outbox_pending",
+                def = "{'outbox.nextAttemptAt': 1}",
+                partialFilter = "{'outbox.state': 'PENDING'}"
+        )
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -61,6 +80,18 @@ public class Order {
     @LastModifiedDate
     private LocalDateTime createdAt;
 
+    /**
+     * Pending stock decrement of this order, written together with the order.
+     * {@code null} for orders stored before the outbox existed.
+     */
+    private StockOutbox outbox;
+
+    /**
+     * ID of the last bulk status update that changed this order; lets that update tell its own writes from
+     * concurrent ones. {@code null} if no bulk update ever changed the order.
+     */
+    private String statusBatchId;
+
     // Custom constructor for convenience - used in OrderMapper.toEntity
     public Order(List<OrderLineItem> items) {
         this.items = items;
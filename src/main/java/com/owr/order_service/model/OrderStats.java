@@ -0,0 +1,52 @@
+package com.owr.order_service.model;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Map;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderStats
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 6:40 PM
+ * Description: Incrementally maintained order counters (one bucket per document).
+ * - Updated with {@code $inc} by {@code OrderStatsStore}; never computed from the orders on a read.
+ =================================================================================*/
+@Document(collection = "order_stats")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStats {
+
+    /**
+     * ID of the bucket holding the totals over all orders.
+     */
+    public static final String TOTAL_ID = "total";
+
+    /**
+     * {@value #TOTAL_ID} for the totals, otherwise the ISO day the orders were placed on (e.g. {@code 2025-08-08});
+     * day IDs sort chronologically.
+     */
+    @Id
+    private String id;
+
+    /**
+     * Number of orders placed.
+     */
+    private long orders;
+
+    /**
+     * Summed total price of the orders placed, in cents (gross: later cancellations and returns are not deducted).
+     */
+    private long revenueCents;
+
+    /**
+     * Number of orders currently in each status, keyed by {@link Status#name()}. Only kept in the totals bucket.
+     */
+    private Map<String, Long> statusCounts;
+}
@@ -0,0 +1,26 @@
+package com.owr.order_service.model;
+
+import java.time.LocalDateTime;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderSummary
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 4:20 PM
+ * Description: Closed projection of an {@link Order} without its customer and line items.
+ =================================================================================*/
+
+/**
+ * Used as the result type of repository queries so that Spring Data only fetches {@code _id}, {@code status},
+ * {@code totalPrice} and {@code createdAt} from MongoDB; line items are neither transferred nor deserialized.
+ */
+public interface OrderSummary {
+
+    String getId();
+
+    Status getStatus();
+
+    double getTotalPrice();
+
+    LocalDateTime getCreatedAt();
+}
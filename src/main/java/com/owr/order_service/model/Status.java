@@ -3,6 +3,12 @@ package com.owr.order_service.model;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.*;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 /*=================================================================================
  * Project: order-service
  * File: Status
@@ -39,6 +45,38 @@ public enum Status {
 
     private final String value;
 
+    /**
+     * Allowed transitions, derived from the lifecycle above:
+     * - Pending    -> Processing, Cancelled
+     * - Processing -> Shipped, Cancelled   (cancellation only before shipping)
+     * - Shipped    -> Delivered
+     * - Delivered  -> Returned
+     * - Cancelled, Returned are final
+     */
+    private static final Map<Status, Set<Status>> NEXT = new EnumMap<>(Status.class);
+
+    /**
+     * Inverse of {@link #NEXT}: the statuses from which each status can be reached.
+     */
+    private static final Map<Status, Set<Status>> PREVIOUS = new EnumMap<>(Status.class);
+
+    static {
+        NEXT.put(PENDING, EnumSet.of(PROCESSING, CANCELLED));
+        NEXT.put(PROCESSING, EnumSet.of(SHIPPED, CANCELLED));
+        NEXT.put(SHIPPED, EnumSet.of(DELIVERED));
+        NEXT.put(DELIVERED, EnumSet.of(RETURNED));
+        NEXT.put(CANCELLED, EnumSet.noneOf(Status.class));
+        NEXT.put(RETURNED, EnumSet.noneOf(Status.class));
+
+        for (Status status : values()) {
+            PREVIOUS.put(status, EnumSet.noneOf(Status.class));
+        }
+        NEXT.forEach((from, targets) -> targets.forEach(to -> PREVIOUS.get(to).add(from)));
+
+        NEXT.replaceAll((status, targets) -> Collections.unmodifiableSet(targets));
+        PREVIOUS.replaceAll((status, sources) -> Collections.unmodifiableSet(sources));
+    }
+
     /**
      * Serializes the enum to its title-case string value (e.g, "Pending")
      */
@@ -72,4 +110,24 @@ public enum Status {
         throw new IllegalArgumentException("Unknown status: " + value);
     }
 
+    /**
+     * Checks whether an order in this status may be moved to the given status.
+     *
+     * @param target the requested new status
+     * @return true if the transition is allowed
+     */
+    public boolean canTransitionTo(Status target) {
+        return NEXT.get(this).contains(target);
+    }
+
+    /**
+     * Returns the statuses from which an order may be moved to this status.
+     * Used as the condition of atomic status updates in MongoDB.
+     *
+     * @return an unmodifiable, possibly empty set of statuses
+     */
+    public Set<Status> allowedPredecessors() {
+        return PREVIOUS.get(this);
+    }
+
 }
@@ -0,0 +1,71 @@
+package com.owr.order_service.model;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*=================================================================================
+ * Project: order-service
+ * File: StockOutbox
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 8:20 PM
+ * Description: Outbox entry for the stock decrement of an order, embedded in the order document.
+ =================================================================================*/
+
+/**
+ * Records that the stock of an order still has to be decreased in the inventory service.
+ * *
+ *  - Written in the same document (and therefore the same atomic write) as the order, so an order can never be
+ *    stored without its pending decrement.
+ *  - Drained by {@code StockOutboxDispatcher}; the quantities to decrement are the order's line items.
+ *  - {@code nextAttemptAt} doubles as a lease: a dispatcher claims an entry by moving it into the future and
+ *    incrementing {@code attempts}; only the holder of that attempt number may complete or reschedule it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockOutbox {
+
+    public enum State {
+        // Decrement not yet confirmed by the inventory service
+        PENDING,
+
+        // Decrement confirmed
+        DISPATCHED,
+
+        // Inventory service refused the decrement (insufficient stock): the order is oversold; needs follow-up
+        REJECTED,
+
+        // Given up after too many attempts; needs manual follow-up
+        FAILED
+    }
+
+    /**
+     * Current state of the entry.
+     */
+    private State state;
+
+    /**
+     * Number of dispatch attempts started so far.
+     */
+    private int attempts;
+
+    /**
+     * Earliest time the entry may be (re)claimed by a dispatcher.
+     */
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Error of the last failed attempt, if any.
+     */
+    private String lastError;
+
+    /**
+     * ID of the batch claim that took the current attempt; lets a dispatcher read back exactly the entries its own
+     * claim won. {@code null} for an entry that was never claimed by the scheduled drain.
+     */
+    private String claimId;
+}
@@ -0,0 +1,81 @@
+package com.owr.order_service.repository;
+
+
+import com.owr.order_service.model.Status;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderRangeQuery
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 5:05 PM
+ * Description: Criteria of a range query over orders, executed by {@link OrderRepositoryCustom}.
+ =================================================================================*/
+
+/**
+ * Every criterion is optional ({@code null} = no restriction); all of them are pushed down to MongoDB.
+ * Results are ordered by {@code createdAt}, then {@code _id}, oldest first unless {@code newestFirst} is set.
+ *
+ * @param from       lower bound of {@code createdAt} (inclusive)
+ * @param to         upper bound of {@code createdAt} (exclusive), so consecutive ranges never overlap
+ * @param status     only orders in this {@link Status}
+ * @param customerId only orders of this customer
+ * @param after      resume after this position (keyset pagination), or {@code null} to start at the beginning
+ * @param limit      maximum number of orders to return; 0 means unlimited (streaming only)
+ * @param newestFirst walk the orders newest first (the order of the indexes) instead of oldest first
+ */
+public record OrderRangeQuery(
+        LocalDateTime from,
+        LocalDateTime to,
+        Status status,
+        String customerId,
+        Cursor after,
+        int limit,
+        boolean newestFirst
+) {
+
+    /**
+     * Position of an order in the {@code (createdAt, _id)} ordering; identifies where the next page starts.
+     * The same cursor works in both directions: the next page holds the orders after it in the query's order.
+     *
+     * @param createdAt creation time of the last order returned
+     * @param id        ID of the last order returned (breaks ties between orders with the same creation time)
+     */
+    public record Cursor(LocalDateTime createdAt, String id) {
+
+        private static final String SEPARATOR = "_";
+
+        /**
+         * @return the cursor as an opaque string, e.g. {@code 2025-08-08T10:15:30.123_66b4c9e2f1a2b34c5d6e7f80}
+         */
+        public String encode() {
+            return createdAt + SEPARATOR + id;
+        }
+
+        /**
+         * Parses a cursor produced by {@link #encode()}.
+         *
+         * @param value the encoded cursor
+         * @return the decoded cursor
+         * @throws IllegalArgumentException if the value is not a valid cursor
+         */
+        public static Cursor decode(String value) {
+            int separator = value.lastIndexOf(SEPARATOR);
+            if (separator > 0) {
+                String id = value.substring(separator + 1);
+                try {
+                    LocalDateTime createdAt = LocalDateTime.parse(value.substring(0, separator));
+                    if (ObjectId.isValid(id)) {
+                        return new Cursor(createdAt, id);
+                    }
+                } catch (DateTimeParseException ignored) {
+                    // fall through to the error below
+                }
+            }
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+}
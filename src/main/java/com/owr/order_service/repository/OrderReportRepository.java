@@ -0,0 +1,186 @@
+package com.owr.order_service.repository;
+
+
+import com.owr.order_service.dto.response.BasketSizeReport;
+import com.owr.order_service.dto.response.DailyRevenueReport;
+import com.owr.order_service.dto.response.ProductSalesReport;
+import com.owr.order_service.model.Order;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AccumulatorOperators;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderReportRepository
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 7:50 PM
+ * Description: Reporting queries over orders, executed as MongoDB aggregation pipelines.
+ =================================================================================*/
+
+/**
+ * Every report is computed inside MongoDB and only its (small) result is transferred; no {@link Order} or line item
+ * is loaded into the JVM.
+ * *
+ *  - Each pipeline starts with a {@code $match} built like the range queries ({@link OrderRangeQuery}), so the
+ *    {@code (createdAt, _id)}, {@code (status, createdAt, _id)} and {@code (customerId, createdAt, _id)} indexes
+ *    select the window; MongoDB only reads the fields the later stages use.
+ *  - {@code order.report.allow-disk-use} lets {@code $group} and {@code $sort} spill to disk instead of failing on
+ *    large windows; {@code order.report.max-time} aborts a report that runs too long.
+ */
+@Repository
+public class OrderReportRepository {
+
+    /**
+     * What the top products report ranks by.
+     */
+    public enum Ranking {
+        UNITS, REVENUE
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final AggregationOptions options;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public OrderReportRepository(
+            MongoTemplate mongoTemplate,
+            @Value("${order.report.allow-disk-use:true}") boolean allowDiskUse,
+            @Value("${order.report.max-time:30s}") Duration maxTime
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.options = AggregationOptions.builder()
+                .allowDiskUse(allowDiskUse)
+                .maxTime(maxTime)
+                .build();
+    }
+
+    /**
+     * Ranks the products of the matching orders: {@code $match -> $unwind items -> $group by product -> $sort ->
+     * $limit}.
+     *
+     * @param window  the orders to include (cursor and limit are ignored)
+     * @param ranking rank by units or by revenue
+     * @param limit   number of products to return
+     * @return at most {@code limit} products, best first
+     */
+    public List<ProductSalesReport> topProducts(OrderRangeQuery window, Ranking ranking, int limit) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(OrderRepositoryCustomImpl.toCriteria(window)),
+                Aggregation.unwind("items"),
+                Aggregation.group("items.productId")
+                        .sum("items.quantity").as("units")
+                        .sum(ArithmeticOperators.Multiply.valueOf("items.quantity").multiplyBy("items.price"))
+                        .as("revenue")
+                        .count().as("lines"),
+                Aggregation.sort(Sort.Direction.DESC, ranking == Ranking.REVENUE ? "revenue" : "units"),
+                Aggregation.limit(limit)
+        ).withOptions(options);
+
+        List<ProductSalesReport> products = new ArrayList<>();
+        for (Document doc : mongoTemplate.aggregate(aggregation, Order.class, Document.class)) {
+            Number productId = (Number) doc.get("_id");
+            products.add(new ProductSalesReport(
+                    productId != null ? productId.longValue() : null,
+                    number(doc, "units").longValue(),
+                    number(doc, "revenue").doubleValue(),
+                    number(doc, "lines").longValue()
+            ));
+        }
+        return products;
+    }
+
+    /**
+     * Sums the matching orders per day: {@code $match -> $project day -> $group by day -> $sort}.
+     *
+     * @param window the orders to include (cursor and limit are ignored)
+     * @return one entry per day with orders, oldest first
+     */
+    public List<DailyRevenueReport> revenuePerDay(OrderRangeQuery window) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(OrderRepositoryCustomImpl.toCriteria(window)),
+                Aggregation.project("totalPrice")
+                        .and(DateOperators.DateToString.dateOf("createdAt")
+                                .toString("%Y-%m-%d")
+                                .withTimezone(DateOperators.Timezone.valueOf(zone.getId())))
+                        .as("day"),
+                Aggregation.group("day")
+                        .count().as("orders")
+                        .sum("totalPrice").as("revenue")
+                        .avg("totalPrice").as("averageOrderValue"),
+                Aggregation.sort(Sort.Direction.ASC, "_id")
+        ).withOptions(options);
+
+        List<DailyRevenueReport> days = new ArrayList<>();
+        for (Document doc : mongoTemplate.aggregate(aggregation, Order.class, Document.class)) {
+            if (doc.getString("_id") == null) {
+                continue;   // orders without createdAt
+            }
+            days.add(new DailyRevenueReport(
+                    LocalDate.parse(doc.getString("_id")),
+                    number(doc, "orders").longValue(),
+                    number(doc, "revenue").doubleValue(),
+                    number(doc, "averageOrderValue").doubleValue()
+            ));
+        }
+        return days;
+    }
+
+    /**
+     * Computes basket size statistics of the matching orders: {@code $match -> $project line and unit counts ->
+     * $group}.
+     *
+     * @param window the orders to include (cursor and limit are ignored)
+     * @return the statistics; all zero if no order matches
+     */
+    public BasketSizeReport basketSize(OrderRangeQuery window) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(OrderRepositoryCustomImpl.toCriteria(window)),
+                Aggregation.project("totalPrice")
+                        .and(ArrayOperators.Size.lengthOfArray("items")).as("lines")
+                        .and(AccumulatorOperators.Sum.sumOf("items.quantity")).as("units"),
+                Aggregation.group()
+                        .count().as("orders")
+                        .avg("lines").as("averageLines")
+                        .avg("units").as("averageUnits")
+                        .max("units").as("maxUnits")
+                        .avg("totalPrice").as("averageOrderValue")
+        ).withOptions(options);
+
+        Document doc = mongoTemplate.aggregate(aggregation, Order.class, Document.class).getUniqueMappedResult();
+        if (doc == null) {
+            return new BasketSizeReport(0, 0, 0, 0, 0);
+        }
+        return new BasketSizeReport(
+                number(doc, "orders").longValue(),
+                number(doc, "averageLines").doubleValue(),
+                number(doc, "averageUnits").doubleValue(),
+                number(doc, "maxUnits").longValue(),
+                number(doc, "averageOrderValue").doubleValue()
+        );
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Reads a numeric result field; MongoDB returns int, long or double depending on the inputs, and null for
+     * averages over no values.
+     */
+    private static Number number(Document doc, String field) {
+        Object value = doc.get(field);
+        return value instanceof Number number ? number : 0;
+    }
+    //====================================================================
+}
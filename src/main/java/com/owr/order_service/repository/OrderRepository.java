@@ -2,7 +2,9 @@ package com.owr.order_service.repository;
 
 
 import com.owr.order_service.model.Order;
+import com.owr.order_service.model.OrderSummary;
 import com.owr.order_service.model.Status;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.time.LocalDateTime;
@@ -15,7 +17,7 @@ import java.util.List;
  * Created on: 08, 8/8/2025, 11:37 AM
  * Description: Repository interface to interact with MongoDB Atlas.
  =================================================================================*/
-public interface OrderRepository extends MongoRepository<Order, String> {
+public interface OrderRepository extends MongoRepository<Order, String>, OrderRepositoryCustom {
     /**
      * Repository interface for performing CRUD operations on {@link Order} documents
      * stored in MongoDB.
@@ -50,5 +52,28 @@ public interface OrderRepository extends MongoRepository<Order, String> {
      */
     List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
 
+    /**
+     * Fetches the first page of orders as the given type, without issuing a count query.
+     * *
+     * With a closed interface projection such as {@link OrderSummary} only the projected fields are read.
+     *
+     * @param pageable page size and sort (keyset pagination always starts at page 0)
+     * @param type     the entity or projection type
+     * @return at most {@code pageable.getPageSize()} orders
+     */
+    <T> List<T> findAllBy(Pageable pageable, Class<T> type);
 
+    /**
+     * Fetches the orders whose ID is lower than the given cursor ID (keyset pagination, newest first)
+     * as the given projection type.
+     * *
+     * Order IDs are Mongo ObjectIds, which grow with their creation time, so paging on {@code _id} walks the
+     * {@code _id} index without skipping documents.
+     *
+     * @param id       the ID of the last order of the previous page
+     * @param pageable page size and sort
+     * @param type     the entity or projection type
+     * @return at most {@code pageable.getPageSize()} orders
+     */
+    <T> List<T> findByIdLessThan(String id, Pageable pageable, Class<T> type);
 }
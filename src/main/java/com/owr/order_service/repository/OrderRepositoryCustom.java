@@ -0,0 +1,129 @@
+package com.owr.order_service.repository;
+
+
+import com.owr.order_service.model.Order;
+import com.owr.order_service.model.Status;
+import com.owr.order_service.model.StockOutbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderRepositoryCustom
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 5:10 PM
+ * Description: Custom repository fragment for queries that cannot be derived from method names.
+ =================================================================================*/
+public interface OrderRepositoryCustom {
+
+    /**
+     * Finds one page of orders matching the given range query.
+     *
+     * @param query the criteria, cursor and page size
+     * @return at most {@code query.limit()} orders, ordered by creation time
+     */
+    List<Order> findRange(OrderRangeQuery query);
+
+    /**
+     * Streams all orders matching the given range query from a Mongo cursor, fetching them in batches.
+     * The returned {@link Stream} holds an open cursor and must be closed by the caller.
+     *
+     * @param query the criteria (the limit is ignored if 0)
+     * @return a lazily populated stream of matching orders, ordered by creation time
+     */
+    Stream<Order> streamRange(OrderRangeQuery query);
+
+    /**
+     * Atomically sets the status of an order, but only if its current status allows the transition
+     * (see {@link Status#allowedPredecessors()}). Runs as a single {@code findAndModify}; only the
+     * {@code status} field is written.
+     * *
+     * The order is returned as it was before the update, so the caller learns the status it moved from; apart from
+     * {@code status} it equals the stored order.
+     *
+     * @param orderId   the ID of the order
+     * @param newStatus the status to set
+     * @return the order before the update, or {@code null} if the order does not exist or its status does not
+     * allow the transition
+     */
+    Order transitionStatus(String orderId, Status newStatus);
+
+    /**
+     * Reads only the status of the given orders.
+     *
+     * @param orderIds the IDs of the orders
+     * @return the current status per order ID; orders that do not exist are absent
+     */
+    Map<String, Status> findStatusesByIds(Collection<String> orderIds);
+
+    /**
+     * Moves many orders to the same status in one unordered {@code bulkWrite}. Each order is only updated while it
+     * still has exactly the status the caller read, so an order changed concurrently is left untouched and every
+     * reported order really went from its expected status to the new one.
+     * *
+     * The update stamps the orders with a batch ID. If fewer orders were modified than requested, the orders
+     * carrying that ID are read back to tell which ones this call changed.
+     *
+     * @param expectedById the orders to update, with the status each one must still have
+     * @param newStatus    the status to set
+     * @return the IDs of the orders this call modified
+     */
+    Set<String> bulkTransitionStatus(Map<String, Status> expectedById, Status newStatus);
+
+    /**
+     * Inserts many orders in one unordered {@code bulkWrite}. The orders must already carry their IDs.
+     * A failing document (e.g. a duplicate ID) does not stop the others from being written.
+     *
+     * @param orders the orders to insert
+     * @return the positions (within {@code orders}) of the orders that could not be written; empty on full success
+     */
+    Set<Integer> insertAllUnordered(List<Order> orders);
+
+    /**
+     * Claims up to {@code limit} of the longest-due pending stock decrements in three round trips, however many
+     * there are: their IDs are read from the {@code outbox_pending} index, one {@code updateMany} moves
+     * {@code outbox.nextAttemptAt} to {@code leaseUntil}, increments {@code outbox.attempts} and stamps a claim ID
+     * (still only while they are due, so a concurrent claim of another dispatcher wins each entry at most once),
+     * and the entries carrying that claim ID are read back.
+     *
+     * @param now        entries due at or before this time are eligible
+     * @param leaseUntil until when the claimed entries are reserved for the caller
+     * @param limit      maximum number of entries to claim
+     * @return the claimed orders (with their incremented attempt numbers), empty if nothing is due
+     */
+    List<Order> claimOutbox(LocalDateTime now, LocalDateTime leaseUntil, int limit);
+
+    /**
+     * Marks the stock decrement of an order as dispatched, provided the caller still holds the given attempt.
+     *
+     * @param orderId the ID of the order
+     * @param attempt the attempt number returned when the entry was claimed
+     * @return true if the entry was updated
+     */
+    boolean completeOutbox(String orderId, int attempt);
+
+    /**
+     * Records a failed dispatch attempt, provided the caller still holds the given attempt.
+     *
+     * @param orderId the ID of the order
+     * @param attempt the attempt number returned when the entry was claimed
+     * @param retryAt when to try again, or {@code null} to give up ({@link StockOutbox.State#FAILED})
+     * @param error   short description of the failure
+     */
+    void failOutboxAttempt(String orderId, int attempt, LocalDateTime retryAt, String error);
+
+    /**
+     * Marks the entry {@link StockOutbox.State#REJECTED} because the inventory service refused the decrement,
+     * provided the caller still holds the given attempt. The order stays as placed; the state flags it as oversold.
+     *
+     * @param orderId the ID of the order
+     * @param attempt the attempt number returned when the entry was claimed
+     * @param error   the reason given by the inventory client
+     */
+    void rejectOutbox(String orderId, int attempt, String error);
+}
@@ -0,0 +1,284 @@
+package com.owr.order_service.repository;
+
+
+import com.mongodb.bulk.BulkWriteError;
+import com.owr.order_service.model.Order;
+import com.owr.order_service.model.Status;
+import com.owr.order_service.model.StockOutbox;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderRepositoryCustomImpl
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 5:15 PM
+ * Description: {@link MongoTemplate} based implementation of {@link OrderRepositoryCustom}.
+ =================================================================================*/
+
+/**
+ * Range queries are answered from the {@code (createdAt, _id)}, {@code (status, createdAt, _id)} and
+ * {@code (customerId, createdAt, _id)} indexes declared on {@link Order}: equality filters select the index prefix,
+ * the {@code createdAt} bounds a range of it, and the sort order is the index order (newest first) or its reverse,
+ * so a page reads only the index entries it returns.
+ */
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    /**
+     * Number of documents fetched per round-trip while streaming.
+     */
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Order> findRange(OrderRangeQuery query) {
+        return mongoTemplate.find(toQuery(query), Order.class);
+    }
+
+    @Override
+    public Stream<Order> streamRange(OrderRangeQuery query) {
+        return mongoTemplate.stream(toQuery(query).cursorBatchSize(STREAM_BATCH_SIZE), Order.class);
+    }
+
+    @Override
+    public Order transitionStatus(String orderId, Status newStatus) {
+        return mongoTemplate.findAndModify(
+                transitionQuery(orderId, newStatus),
+                new Update().set("status", newStatus),
+                FindAndModifyOptions.options().returnNew(false),
+                Order.class
+        );
+    }
+
+    @Override
+    public Map<String, Status> findStatusesByIds(Collection<String> orderIds) {
+        Query query = new Query(Criteria.where("_id").in(orderIds));
+        query.fields().include("status");
+
+        Map<String, Status> statusById = new HashMap<>();
+        mongoTemplate.find(query, Order.class)
+                .forEach(order -> statusById.put(order.getId(), order.getStatus()));
+        return statusById;
+    }
+
+    @Override
+    public Set<String> bulkTransitionStatus(Map<String, Status> expectedById, Status newStatus) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        String batchId = new ObjectId().toHexString();
+        Update update = new Update().set("status", newStatus).set("statusBatchId", batchId);
+
+        expectedById.forEach((orderId, expected) ->
+                bulk.updateOne(new Query(Criteria.where("_id").is(orderId).and("status").is(expected)), update));
+        int modified = bulk.execute().getModifiedCount();
+
+        if (modified == expectedById.size()) {
+            return Set.copyOf(expectedById.keySet());
+        }
+        if (modified == 0) {
+            return Set.of();
+        }
+        // Partial: only the orders stamped with this batch were changed by this call
+        Query stamped = new Query(Criteria.where("_id").in(expectedById.keySet()).and("statusBatchId").is(batchId));
+        stamped.fields().include("_id");
+        return mongoTemplate.find(stamped, Order.class).stream()
+                .map(Order::getId)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Set<Integer> insertAllUnordered(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Set.of();
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        bulk.insert(orders);
+        try {
+            bulk.execute();
+            return Set.of();
+        } catch (BulkOperationException e) {
+            // Unordered: every other document was still attempted; report only the failed positions
+            return e.getErrors().stream()
+                    .map(BulkWriteError::getIndex)
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    @Override
+    public List<Order> claimOutbox(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        Query due = dueOutboxQuery(now).limit(limit);
+        due.fields().include("_id");
+        List<String> ids = mongoTemplate.find(due, Order.class).stream().map(Order::getId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String claimId = new ObjectId().toHexString();
+        long claimed = mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(ids)
+                        .and("outbox.state").is(StockOutbox.State.PENDING)
+                        .and("outbox.nextAttemptAt").lte(now)),
+                new Update().set("outbox.nextAttemptAt", leaseUntil)
+                        .set("outbox.claimId", claimId)
+                        .inc("outbox.attempts", 1),
+                Order.class
+        ).getModifiedCount();
+        if (claimed == 0) {
+            return List.of();
+        }
+        return mongoTemplate.find(
+                new Query(Criteria.where("_id").in(ids).and("outbox.claimId").is(claimId)), Order.class);
+    }
+
+    @Override
+    public boolean completeOutbox(String orderId, int attempt) {
+        return mongoTemplate.updateFirst(
+                outboxAttempt(orderId, attempt),
+                new Update().set("outbox.state", StockOutbox.State.DISPATCHED).unset("outbox.lastError"),
+                Order.class
+        ).getModifiedCount() > 0;
+    }
+
+    @Override
+    public void failOutboxAttempt(String orderId, int attempt, LocalDateTime retryAt, String error) {
+        Update update = new Update().set("outbox.lastError", error);
+        if (retryAt != null) {
+            update.set("outbox.nextAttemptAt", retryAt);
+        } else {
+            update.set("outbox.state", StockOutbox.State.FAILED);
+        }
+        mongoTemplate.updateFirst(outboxAttempt(orderId, attempt), update, Order.class);
+    }
+
+    @Override
+    public void rejectOutbox(String orderId, int attempt, String error) {
+        mongoTemplate.updateFirst(
+                outboxAttempt(orderId, attempt),
+                new Update().set("outbox.state", StockOutbox.State.REJECTED).set("outbox.lastError", error),
+                Order.class
+        );
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Matches pending outbox entries that are due, oldest first; answered from the partial {@code outbox_pending}
+     * index, which the equality on {@code outbox.state} makes eligible.
+     */
+    static Query dueOutboxQuery(LocalDateTime now) {
+        return new Query(Criteria.where("outbox.state").is(StockOutbox.State.PENDING)
+                .and("outbox.nextAttemptAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "outbox.nextAttemptAt"));
+    }
+
+    /**
+     * Matches the pending outbox entry of an order only while it is still held by the given attempt, so a
+     * dispatcher whose lease expired cannot overwrite the outcome of the one that took over.
+     */
+    private static Query outboxAttempt(String orderId, int attempt) {
+        return new Query(Criteria.where("_id").is(orderId)
+                .and("outbox.state").is(StockOutbox.State.PENDING)
+                .and("outbox.attempts").is(attempt));
+    }
+
+    /**
+     * Matches an order only while its current status allows the transition to {@code newStatus}.
+     * Shared with {@link ReactiveOrderRepositoryCustomImpl}.
+     */
+    static Query transitionQuery(String orderId, Status newStatus) {
+        return new Query(Criteria.where("_id").is(orderId)
+                .and("status").in(newStatus.allowedPredecessors()));
+    }
+
+    /**
+     * Translates a range query into a Mongo query: filters, keyset condition, sort and limit.
+     * Shared with {@link ReactiveOrderRepositoryCustomImpl}.
+     */
+    static Query toQuery(OrderRangeQuery range) {
+        List<Criteria> criteria = criteriaOf(range);
+        Query query = criteria.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(criteria));
+
+        query.with(Sort.by(range.newestFirst() ? Sort.Direction.DESC : Sort.Direction.ASC, "createdAt", "_id"));
+        if (range.limit() > 0) {
+            query.limit(range.limit());
+        }
+        return query;
+    }
+
+    /**
+     * Translates the filters and keyset condition of a range query into one criteria document (empty if the query
+     * has none). Shared with {@link OrderReportRepository}, which uses it as the {@code $match} stage.
+     */
+    static Criteria toCriteria(OrderRangeQuery range) {
+        List<Criteria> criteria = criteriaOf(range);
+        return criteria.isEmpty()
+                ? new Criteria()
+                : new Criteria().andOperator(criteria);
+    }
+
+    /**
+     * The individual conditions of a range query: equality filters, the {@code createdAt} interval and the keyset
+     * condition.
+     */
+    private static List<Criteria> criteriaOf(OrderRangeQuery range) {
+        List<Criteria> criteria = new ArrayList<>();
+
+        if (range.status() != null) {
+            criteria.add(Criteria.where("status").is(range.status()));
+        }
+        if (range.customerId() != null) {
+            criteria.add(Criteria.where("customerId").is(range.customerId()));
+        }
+        // Half-open interval [from, to)
+        if (range.from() != null) {
+            criteria.add(Criteria.where("createdAt").gte(range.from()));
+        }
+        if (range.to() != null) {
+            criteria.add(Criteria.where("createdAt").lt(range.to()));
+        }
+        // Keyset: strictly after the last (createdAt, _id) returned, in the direction of the query
+        OrderRangeQuery.Cursor after = range.after();
+        if (after != null) {
+            ObjectId afterId = new ObjectId(after.id());
+            criteria.add(range.newestFirst()
+                    ? new Criteria().orOperator(
+                            Criteria.where("createdAt").lt(after.createdAt()),
+                            new Criteria().andOperator(
+                                    Criteria.where("createdAt").is(after.createdAt()),
+                                    Criteria.where("_id").lt(afterId)
+                            ))
+                    : new Criteria().orOperator(
+                            Criteria.where("createdAt").gt(after.createdAt()),
+                            new Criteria().andOperator(
+                                    Criteria.where("createdAt").is(after.createdAt()),
+                                    Criteria.where("_id").gt(afterId)
+                            ))
+            );
+        }
+
+        return criteria;
+    }
+    //====================================================================
+}
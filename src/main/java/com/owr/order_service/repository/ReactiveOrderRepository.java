@@ -0,0 +1,38 @@
+package com.owr.order_service.repository;
+
+
+import com.owr.order_service.model.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ReactiveOrderRepository
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 2:10 PM
+ * Description: Non-blocking counterpart of {@link OrderRepository}, used by the {@code reactive} profile.
+ =================================================================================*/
+public interface ReactiveOrderRepository extends ReactiveMongoRepository<Order, String>, ReactiveOrderRepositoryCustom {
+
+    /**
+     * Emits the first page of orders as the given type.
+     *
+     * @param pageable page size and sort (keyset pagination always starts at page 0)
+     * @param type     the entity or projection type
+     * @return at most {@code pageable.getPageSize()} orders
+     * @see OrderRepository#findAllBy(Pageable, Class)
+     */
+    <T> Flux<T> findAllBy(Pageable pageable, Class<T> type);
+
+    /**
+     * Emits the orders whose ID is lower than the given cursor ID (keyset pagination, newest first).
+     *
+     * @param id       the ID of the last order of the previous page
+     * @param pageable page size and sort
+     * @param type     the entity or projection type
+     * @return at most {@code pageable.getPageSize()} orders
+     * @see OrderRepository#findByIdLessThan(String, Pageable, Class)
+     */
+    <T> Flux<T> findByIdLessThan(String id, Pageable pageable, Class<T> type);
+}
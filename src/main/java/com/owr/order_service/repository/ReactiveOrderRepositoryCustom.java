@@ -0,0 +1,36 @@
+package com.owr.order_service.repository;
+
+
+import com.owr.order_service.model.Order;
+import com.owr.order_service.model.Status;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ReactiveOrderRepositoryCustom
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 2:10 PM
+ * Description: Custom fragment of {@link ReactiveOrderRepository}; same queries as {@link OrderRepositoryCustom}.
+ =================================================================================*/
+public interface ReactiveOrderRepositoryCustom {
+
+    /**
+     * Emits the orders matching a range query, in {@code (createdAt, _id)} order.
+     * With {@code limit == 0} every match is emitted as the cursor yields it, with backpressure.
+     *
+     * @param query the filters, keyset position and limit
+     * @return the matching orders
+     */
+    Flux<Order> findRange(OrderRangeQuery query);
+
+    /**
+     * Sets the status of an order if its current status allows the transition, in one {@code findAndModify}.
+     *
+     * @param orderId   the ID of the order
+     * @param newStatus the new status
+     * @return the order before the update (see {@link OrderRepositoryCustom#transitionStatus}), or empty if the
+     * order does not exist or the transition is not allowed
+     */
+    Mono<Order> transitionStatus(String orderId, Status newStatus);
+}
@@ -0,0 +1,48 @@
+package com.owr.order_service.repository;
+
+
+import com.owr.order_service.model.Order;
+import com.owr.order_service.model.Status;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ReactiveOrderRepositoryCustomImpl
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 2:15 PM
+ * Description: {@link ReactiveMongoTemplate} based implementation of {@link ReactiveOrderRepositoryCustom}.
+ * - Builds exactly the same queries as {@link OrderRepositoryCustomImpl}, so both use the same indexes.
+ =================================================================================*/
+@RequiredArgsConstructor
+public class ReactiveOrderRepositoryCustomImpl implements ReactiveOrderRepositoryCustom {
+
+    /**
+     * Number of documents fetched per round-trip while streaming.
+     */
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Order> findRange(OrderRangeQuery query) {
+        return mongoTemplate.find(
+                OrderRepositoryCustomImpl.toQuery(query).cursorBatchSize(STREAM_BATCH_SIZE),
+                Order.class
+        );
+    }
+
+    @Override
+    public Mono<Order> transitionStatus(String orderId, Status newStatus) {
+        return mongoTemplate.findAndModify(
+                OrderRepositoryCustomImpl.transitionQuery(orderId, newStatus),
+                new Update().set("status", newStatus),
+                FindAndModifyOptions.options().returnNew(false),
+                Order.class
+        );
+    }
+}
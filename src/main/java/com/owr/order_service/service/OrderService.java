@@ -2,14 +2,18 @@ package com.owr.order_service.service;
 
 
 import com.owr.order_service.dto.request.CreateOrderRequest;
+import com.owr.order_service.dto.request.OrderFilterRequest;
+import com.owr.order_service.dto.response.BatchOrderResponse;
+import com.owr.order_service.dto.response.BulkStatusUpdateResponse;
+import com.owr.order_service.dto.response.OrderPageResponse;
 import com.owr.order_service.dto.response.OrderResponse;
+import com.owr.order_service.dto.response.OrderSummaryResponse;
 import com.owr.order_service.model.Order;
 import com.owr.order_service.model.Status;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /*=================================================================================
  * Project: order-service
@@ -21,11 +25,34 @@ import java.util.List;
 @Service
 public interface OrderService {
     /**
-     * Retrieves a list of all orders in the system.
+     * Retrieves one page of orders, newest first, using keyset pagination.
      *
-     * @return a list of {@link OrderResponse} DTOs representing all stored orders
+     * @param cursor the {@code nextCursor} of the previous page, or {@code null} for the first page
+     * @param limit  the requested page size; capped at the configured maximum page size
+     * @return the {@link OrderPageResponse} with the orders and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is malformed
      */
-    List<OrderResponse> getAllOrders();
+    OrderPageResponse<OrderResponse> getOrders(String cursor, Integer limit);
+
+    /**
+     * Retrieves one page of order summaries (id, status, total price, creation time), newest first.
+     * Line items are not read from the database.
+     *
+     * @param cursor the {@code nextCursor} of the previous page, or {@code null} for the first page
+     * @param limit  the requested page size; capped at the configured maximum page size
+     * @return the {@link OrderPageResponse} with the summaries and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    OrderPageResponse<OrderSummaryResponse> getOrderSummaries(String cursor, Integer limit);
+
+    /**
+     * Streams the orders matching the filter straight from a database cursor, oldest first, so memory use does not
+     * grow with the number of orders. The returned {@link Stream} must be closed by the caller.
+     *
+     * @param filter optional date range, status and customer filters
+     * @return a lazily populated stream of {@link OrderResponse} DTOs
+     */
+    Stream<OrderResponse> streamOrders(OrderFilterRequest filter);
 
     /**
      * Places a new order based on the provided request details and authentication token.
@@ -34,7 +61,7 @@ public interface OrderService {
      *  - Validates stock availability for each requested item using the inventory service with Bearer token authentication
      *  - Maps the incoming {@link CreateOrderRequest} to an {@link Order} entity
      *  - Persists the order in the repository</li>
-     *  - Decreases inventory stock via the inventory service</li>
+     *  - Queues the inventory stock decrease in the order's outbox; it is sent in the background</li>
      *  - Maps the saved order to an {@link OrderResponse}</li>
      * </ul>
      *
@@ -47,21 +74,56 @@ public interface OrderService {
     OrderResponse placeOrder(CreateOrderRequest request, String token);
 
     /**
-     * Updates the status of an existing order.
+     * Places many orders at once. Stock and prices are looked up once for the union of all products and the
+     * orders are inserted with a single unordered bulk write.
+     *
+     * @param requests the orders to place
+     * @param token    the Bearer token for authenticated requests to the downstream services
+     * @return one result per order, in request order: accepted with the order ID, or rejected with a reason
+     * @throws IllegalArgumentException if more orders are given than the configured maximum batch size
+     */
+    BatchOrderResponse placeOrders(List<CreateOrderRequest> requests, String token);
+
+    /**
+     * Updates the status of an existing order, if its current status allows the transition.
      *
      * @param orderId   the ID of the order to update
      * @param newStatus the new status to set
+     * @return the updated order
      */
     OrderResponse updateOrderStatus(String orderId, Status newStatus);
 
     /**
-     * Retrieves all orders created within a given date range.
+     * Moves many orders to the same status with a single bulk write.
+     *
+     * @param orderIds  the IDs of the orders to update (duplicates are ignored)
+     * @param newStatus the new status to set
+     * @return one result per distinct order ID: updated, not found or illegal transition
+     * @throws IllegalArgumentException if more order IDs are given than the configured maximum batch size
+     */
+    BulkStatusUpdateResponse updateOrderStatuses(List<String> orderIds, Status newStatus);
+
+    /**
+     * Retrieves one page of the orders matching the filter (date range, status, customer), newest first.
+     *
+     * @param filter the filters; {@code dateTo} defaults to {@code dateFrom} when only {@code dateFrom} is given
+     * @param cursor the {@code nextCursor} of the previous page, or {@code null} for the first page
+     * @param limit  the requested page size; capped at the configured maximum page size
+     * @return the {@link OrderPageResponse} with the matching orders and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is malformed or {@code dateTo} is before {@code dateFrom}
+     */
+    OrderPageResponse<OrderResponse> getOrdersByFilter(OrderFilterRequest filter, String cursor, Integer limit);
+
+    /**
+     * Retrieves one page of a customer's orders, newest first (order history).
      *
-     * @param from optional start date (inclusive)
-     * @param to   optional end date (inclusive). If not provided, defaults to same as start date.
-     * @return list of {@link OrderResponse} DTOs created within the specified range
+     * @param customerId the customer whose orders are returned
+     * @param cursor     the {@code nextCursor} of the previous page, or {@code null} for the first page
+     * @param limit      the requested page size; capped at the configured maximum page size
+     * @return the {@link OrderPageResponse} with the customer's orders and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is malformed
      */
-    List<OrderResponse> getOrdersByDateRange(LocalDate from, LocalDate to);
+    OrderPageResponse<OrderResponse> getCustomerOrders(String customerId, String cursor, Integer limit);
 
 
 }
@@ -0,0 +1,74 @@
+package com.owr.order_service.service;
+
+
+import com.owr.order_service.dto.request.CreateOrderRequest;
+import com.owr.order_service.dto.request.OrderFilterRequest;
+import com.owr.order_service.dto.response.BatchOrderResponse;
+import com.owr.order_service.dto.response.BulkStatusUpdateResponse;
+import com.owr.order_service.dto.response.OrderPageResponse;
+import com.owr.order_service.dto.response.OrderResponse;
+import com.owr.order_service.dto.response.OrderSummaryResponse;
+import com.owr.order_service.model.Status;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ReactiveOrderService
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 2:45 PM
+ * Description: Non-blocking counterpart of {@link OrderService}, used by the {@code reactive} profile.
+ * - Same operations, rules and errors as {@link OrderService}; results are delivered as {@link Mono} / {@link Flux}
+ *   and errors as error signals.
+ =================================================================================*/
+public interface ReactiveOrderService {
+
+    /**
+     * @see OrderService#getOrders(String, Integer)
+     */
+    Mono<OrderPageResponse<OrderResponse>> getOrders(String cursor, Integer limit);
+
+    /**
+     * @see OrderService#getOrderSummaries(String, Integer)
+     */
+    Mono<OrderPageResponse<OrderSummaryResponse>> getOrderSummaries(String cursor, Integer limit);
+
+    /**
+     * Emits the orders matching the filter as the database cursor yields them, oldest first, with backpressure.
+     *
+     * @see OrderService#streamOrders(OrderFilterRequest)
+     */
+    Flux<OrderResponse> streamOrders(OrderFilterRequest filter);
+
+    /**
+     * @see OrderService#placeOrder(CreateOrderRequest, String)
+     */
+    Mono<OrderResponse> placeOrder(CreateOrderRequest request, String token);
+
+    /**
+     * @see OrderService#placeOrders(List, String)
+     */
+    Mono<BatchOrderResponse> placeOrders(List<CreateOrderRequest> requests, String token);
+
+    /**
+     * @see OrderService#updateOrderStatus(String, Status)
+     */
+    Mono<OrderResponse> updateOrderStatus(String orderId, Status newStatus);
+
+    /**
+     * @see OrderService#updateOrderStatuses(List, Status)
+     */
+    Mono<BulkStatusUpdateResponse> updateOrderStatuses(List<String> orderIds, Status newStatus);
+
+    /**
+     * @see OrderService#getOrdersByFilter(OrderFilterRequest, String, Integer)
+     */
+    Mono<OrderPageResponse<OrderResponse>> getOrdersByFilter(OrderFilterRequest filter, String cursor, Integer limit);
+
+    /**
+     * @see OrderService#getCustomerOrders(String, String, Integer)
+     */
+    Mono<OrderPageResponse<OrderResponse>> getCustomerOrders(String customerId, String cursor, Integer limit);
+}
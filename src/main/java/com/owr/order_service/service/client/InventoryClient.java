@@ -1,16 +1,29 @@
 package com.owr.order_service.service.client;
 
 
-import com.owr.order_service.dto.request.InventoryUpdateRequest;
+import com.owr.order_service.dto.request.InventoryReservationRequest;
 import com.owr.order_service.dto.request.OrderItemRequest;
 import com.owr.order_service.dto.response.InventoryResponse;
+import com.owr.order_service.service.metrics.OrderMetrics;
+import com.owr.order_service.service.metrics.OrderMetrics.DownstreamCall;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /*=================================================================================
  * Project: order-service
@@ -19,16 +32,33 @@ import java.util.Arrays;
  * Created on: 08, 8/8/2025, 10:54 AM
  * Description: REST client to communicate with Inventory-Service.
  * - Should verify stock availability before placing an order.
+ * - Every remote call runs through the {@code inventory} circuit breaker and bulkhead (see application.properties):
+ *   while the inventory service is failing or saturated, calls fail immediately instead of tying up threads.
+ * - Every HTTP call is timed as {@code downstream.calls{client=inventory}} (see {@link OrderMetrics}).
  =================================================================================*/
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class InventoryClient {
 
+    /**
+     * Header carrying the idempotency key of a stock decrement; the inventory service applies a decrement with a
+     * key it has already seen only once, so retried decrements are not double-counted.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Name of the Resilience4j circuit breaker and bulkhead guarding the inventory service.
+     */
+    static final String BACKEND = "inventory";
+
     /**
      * The HTTP client used to send requests to the external Inventory Service.
      */
     private final RestTemplate restTemplate;
 
+    private final OrderMetrics metrics;
+
     /**
      * The base URL of the inventory service.
      * Injected from the application configuration using the property {@code inventory.service.port}.
@@ -36,6 +66,26 @@ public class InventoryClient {
     @Value("${inventory.service.url}")
     private String inventoryServiceUrl;
 
+    /**
+     * Whether the bulk endpoints ({@code GET /batch}, {@code POST /batch/decrease}) should be used; off by default
+     * because the inventory service only offers the per-product endpoints unless it was extended for them.
+     * Injected from the application configuration using the property {@code inventory.service.bulk-enabled}.
+     */
+    @Value("${inventory.service.bulk-enabled:false}")
+    private boolean bulkEnabled;
+
+    /**
+     * How long the bulk endpoints are skipped after the inventory service answered that it does not offer them.
+     * Injected from the application configuration using the property {@code inventory.service.unsupported-recheck}.
+     */
+    @Value("${inventory.service.unsupported-recheck:10m}")
+    private Duration unsupportedRecheck;
+
+    /**
+     * Whether the bulk endpoints are currently offered; see {@link OptionalEndpoint}.
+     */
+    private final OptionalEndpoint bulkEndpoint = new OptionalEndpoint("bulk");
+
     /** ------------------------------------------------------------------
      * Helper functions
      ------------------------------------------------------------------*/
@@ -51,6 +101,8 @@ public class InventoryClient {
      * @param token     the JWT bearer token used for authorization
      * @return the total available quantity for the specified product, or 0 if unavailable
      */
+    @CircuitBreaker(name = BACKEND)
+    @Bulkhead(name = BACKEND)
     public Integer fetchAvailableQuantity(Long productId, String token) {
         // Construct the URL to the inventory-service endpoint
         String url = inventoryServiceUrl + "/" + productId;
@@ -63,12 +115,13 @@ public class InventoryClient {
         HttpEntity<Void> entity = new HttpEntity<>(headers);
 
         // Send GET request and expect an array of InventoryResponse
-        ResponseEntity<InventoryResponse[]> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                InventoryResponse[].class
-        );
+        ResponseEntity<InventoryResponse[]> response = metrics.timeDownstream(DownstreamCall.INVENTORY_STOCK,
+                () -> restTemplate.exchange(
+                        url,
+                        HttpMethod.GET,
+                        entity,
+                        InventoryResponse[].class
+                ));
 
         // Parse the response body
         InventoryResponse[] inventoryEntries = response.getBody();
@@ -94,6 +147,8 @@ public class InventoryClient {
      * @param token     JWT bearer token
      * @return true if stock > 0, false otherwise
      */
+    @CircuitBreaker(name = BACKEND)
+    @Bulkhead(name = BACKEND)
     public boolean isStockSufficient(Long productId, String token) {
         // Retrieve available quantity from the Inventory Service
         Integer quantity = fetchAvailableQuantity(productId, token);
@@ -107,6 +162,8 @@ public class InventoryClient {
      * @param token     the Bearer token for authentication
      * @return available stock or 0 if unavailable
      */
+    @CircuitBreaker(name = BACKEND)
+    @Bulkhead(name = BACKEND)
     public int getStockQuantity(Long productId, String token) {
 
         String url = inventoryServiceUrl + "/" + productId;
@@ -115,12 +172,13 @@ public class InventoryClient {
         headers.setBearerAuth(token);  // Add Authorization: Bearer <token>
         HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-        ResponseEntity<Integer> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                Integer.class
-        );
+        ResponseEntity<Integer> response = metrics.timeDownstream(DownstreamCall.INVENTORY_STOCK,
+                () -> restTemplate.exchange(
+                        url,
+                        HttpMethod.GET,
+                        entity,
+                        Integer.class
+                ));
         if (!response.getStatusCode().is2xxSuccessful()) {
             throw new IllegalStateException(
                     "Inventory GET failed " +
@@ -138,40 +196,208 @@ public class InventoryClient {
     }
 
     /**
-     * Sends a POST request to the inventory service to reduce the current stock quantity.
+     * Reduces the stock of a product by the given quantity.
+     * *
+     *  - Sends {@code POST <inventory.service.url>/decrease} with an {@link InventoryReservationRequest};
+     *    the inventory service applies the delta atomically and answers 409 Conflict if stock is insufficient,
+     *    so concurrent orders for the same product cannot oversell.
+     *  - There is deliberately no fallback to writing "current stock - quantity" as an absolute level: that write
+     *    loses concurrent decrements and cannot be deduplicated on retry. If the inventory service does not offer
+     *    the delta endpoint the call fails.
+     *
+     * @param productId      the ID of the product to decrease
+     * @param quantity       the quantity to reduce from inventory
+     * @param token          the Bearer token for authentication
+     * @param idempotencyKey sent as {@value #IDEMPOTENCY_KEY_HEADER}, or {@code null}
+     * @throws IllegalArgumentException if there is not enough stock to reduce
+     * @throws IllegalStateException    if the inventory service does not offer {@code POST /decrease}
+     */
+    @CircuitBreaker(name = BACKEND)
+    @Bulkhead(name = BACKEND)
+    public void decreaseStock(Long productId, int quantity, String token, String idempotencyKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);  // Authorization: Bearer <token>
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (idempotencyKey != null) {
+            headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+
+        HttpEntity<InventoryReservationRequest> entity =
+                new HttpEntity<>(new InventoryReservationRequest(productId, quantity), headers);
+
+        try {
+            metrics.timeDownstream(DownstreamCall.INVENTORY_DECREASE,
+                    () -> restTemplate.postForEntity(
+                            inventoryServiceUrl + "/decrease",
+                            entity,
+                            Void.class
+                    ));
+        } catch (HttpStatusCodeException e) {
+            int status = e.getStatusCode().value();
+            if (status == 409) {
+                throw new IllegalArgumentException(
+                        "Not enough stock to reduce for ProductId: " + productId
+                );
+            }
+            if (status == 405 || status == 501) {
+                log.error("Inventory service answered {} to POST /decrease; stock cannot be decreased safely", status);
+                throw new IllegalStateException(
+                        "Inventory service does not support POST /decrease (HTTP " + status + ")", e
+                );
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reduces the stock of a product by the given quantity, without an idempotency key.
      *
      * @param productId the ID of the product to decrease
      * @param quantity  the quantity to reduce from inventory
      * @param token     the Bearer token for authentication
+     * @see #decreaseStock(Long, int, String, String)
      */
+    @CircuitBreaker(name = BACKEND)
+    @Bulkhead(name = BACKEND)
     public void decreaseStock(Long productId, int quantity, String token) {
-        // Get current stock with authentication
-        int currentStock = getStockQuantity(productId, token);
+        decreaseStock(productId, quantity, token, null);
+    }
 
-        if (currentStock < quantity) {
-            throw new IllegalArgumentException(
-                    "Not enough stock to reduce for ProductId: " + productId
-            );
-        }
+    /** ------------------------------------------------------------------
+     * Bulk operations
+     ------------------------------------------------------------------*/
+
+    /**
+     * Whether bulk requests are enabled and the inventory service has not recently answered that it lacks them.
+     *
+     * @return true if {@link #getStockQuantities} and {@link #reserveStock} use a single request
+     */
+    public boolean isBulkEnabled() {
+        return bulkEnabled && bulkEndpoint.isAvailable();
+    }
 
-        // Calculate new stock
-        int newStock = currentStock - quantity;
+    /**
+     * Gets the stock quantities of several products with a single request.
+     * *
+     *  - Sends {@code GET <inventory.service.url>/batch?productIds=1&productIds=2...}
+     *  - Expects a JSON array of {@link InventoryResponse}; quantities are summed per product
+     *  - Products missing from the response are reported with a stock of 0
+     *  - Returns empty if bulk requests are disabled or the bulk endpoint is not available (400/405/501, remembered
+     *    for {@code inventory.service.unsupported-recheck}) or answers 404 (this call only). The caller then looks
+     *    the products up with {@link #getStockQuantity}, one concurrent call per product (see
+     *    {@code OrderLookupPipeline}), instead of this method calling them one after another.
+     *
+     * @param productIds the product IDs to look up
+     * @param token      the Bearer token for authentication
+     * @return available stock per product ID, or empty if the caller must fall back to per-product requests
+     */
+    @CircuitBreaker(name = BACKEND)
+    @Bulkhead(name = BACKEND)
+    public Optional<Map<Long, Integer>> getStockQuantities(Collection<Long> productIds, String token) {
+        if (!isBulkEnabled()) {
+            return Optional.empty();
+        }
 
-        InventoryUpdateRequest request = new InventoryUpdateRequest(productId, newStock);
+        String url = UriComponentsBuilder.fromUriString(inventoryServiceUrl)
+                .path("/batch")
+                .queryParam("productIds", productIds)
+                .toUriString();
 
-        // Prepare headers
         HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(token);  // Authorization: Bearer <token>
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(token);
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
+
+        try {
+            ResponseEntity<InventoryResponse[]> response = metrics.timeDownstream(
+                    DownstreamCall.INVENTORY_STOCK_BATCH,
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            entity,
+                            InventoryResponse[].class
+                    ));
 
-        HttpEntity<InventoryUpdateRequest> entity = new HttpEntity<>(request, headers);
+            Map<Long, Integer> stockByProductId = new LinkedHashMap<>();
+            productIds.forEach(productId -> stockByProductId.put(productId, 0));
 
-        // Send POST to inventory-service
-        restTemplate.postForEntity(
-                inventoryServiceUrl,
-                entity,
-                Void.class
-        );
+            InventoryResponse[] inventoryEntries = response.getBody();
+            if (inventoryEntries != null) {
+                for (InventoryResponse entry : inventoryEntries) {
+                    stockByProductId.computeIfPresent(entry.productId(), (id, sum) -> sum + entry.quantity());
+                }
+            }
+            return Optional.of(stockByProductId);
+        } catch (HttpStatusCodeException e) {
+            if (!bulkEndpoint.fallBackOn(e.getStatusCode().value(), unsupportedRecheck)) {
+                throw e;
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reserves (decreases) stock for several products with a single request.
+     * *
+     *  - Sends {@code POST <inventory.service.url>/batch/decrease} with a JSON array of
+     *    {@link InventoryReservationRequest}
+     *  - Falls back to one {@link #decreaseStock} call per product if the bulk endpoint is not available
+     *    (same rules as {@link #getStockQuantities})
+     *  - Both paths use the same keys: every product line is keyed {@code <idempotencyKey>:<productId>}, in the
+     *    body of the bulk request and in the {@value #IDEMPOTENCY_KEY_HEADER} header of the per-product ones. A retry
+     *    that takes the other path than the first attempt is therefore still recognised as a duplicate.
+     *
+     * @param quantityByProductId the quantity to reserve per product ID
+     * @param token               the Bearer token for authentication
+     * @param idempotencyKey      prefix of the per-line keys, e.g. {@code order-<orderId>}
+     * @throws IllegalArgumentException if there is not enough stock to reserve
+     */
+    @CircuitBreaker(name = BACKEND)
+    @Bulkhead(name = BACKEND)
+    public void reserveStock(
+            Map<Long, Integer> quantityByProductId,
+            String token,
+            String idempotencyKey
+    ) {
+        if (isBulkEnabled()) {
+            List<InventoryReservationRequest> request = quantityByProductId.entrySet().stream()
+                    .map(e -> new InventoryReservationRequest(
+                            e.getKey(), e.getValue(), lineKey(idempotencyKey, e.getKey())))
+                    .toList();
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(token);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<List<InventoryReservationRequest>> entity = new HttpEntity<>(request, headers);
+
+            try {
+                metrics.timeDownstream(DownstreamCall.INVENTORY_DECREASE_BATCH,
+                        () -> restTemplate.postForEntity(
+                                inventoryServiceUrl + "/batch/decrease",
+                                entity,
+                                Void.class
+                        ));
+                return;
+            } catch (HttpStatusCodeException e) {
+                if (e.getStatusCode().value() == 409) {
+                    throw new IllegalArgumentException("Not enough stock to reserve for products: "
+                            + quantityByProductId.keySet());
+                }
+                if (!bulkEndpoint.fallBackOn(e.getStatusCode().value(), unsupportedRecheck)) {
+                    throw e;
+                }
+            }
+        }
+
+        // Fallback: one request per product
+        quantityByProductId.forEach((productId, quantity) ->
+                decreaseStock(productId, quantity, token, lineKey(idempotencyKey, productId)));
+    }
+
+    /**
+     * Idempotency key of one product line of a reservation, or {@code null} without a reservation key.
+     */
+    private static String lineKey(String idempotencyKey, Long productId) {
+        return idempotencyKey != null ? idempotencyKey + ":" + productId : null;
     }
 
 }
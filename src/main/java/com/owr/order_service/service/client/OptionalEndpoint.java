@@ -0,0 +1,70 @@
+package com.owr.order_service.service.client;
+
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OptionalEndpoint
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:10 AM
+ * Description: Tracks whether the inventory service currently offers an optional endpoint (e.g. the bulk ones).
+ =================================================================================*/
+
+/**
+ * Lets the inventory clients fall back to the per-product endpoints without sending a request that is bound to fail.
+ * *
+ *  - 405 Method Not Allowed, 501 Not Implemented and 400 Bad Request mark the endpoint unsupported. An inventory
+ *    service without the bulk endpoints routes {@code /batch} to {@code /{productId}} and typically answers 400
+ *    for the path variable that is not a number. A 404 may just as well be the answer for an unknown product ID,
+ *    so it only makes the current call fall back.
+ *  - The mark expires after {@code inventory.service.unsupported-recheck}; the next call probes the endpoint again,
+ *    so an inventory service that gains (or regains) the endpoint is used again without a restart.
+ */
+@Slf4j
+final class OptionalEndpoint {
+
+    private final String name;
+
+    /**
+     * Until when (epoch millis) the endpoint is skipped; 0 while it is used.
+     */
+    private final AtomicLong unsupportedUntil = new AtomicLong();
+
+    OptionalEndpoint(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return false while the endpoint is marked unsupported
+     */
+    boolean isAvailable() {
+        return System.currentTimeMillis() >= unsupportedUntil.get();
+    }
+
+    /**
+     * Decides whether an error answer means the caller should fall back to the per-product endpoints, and marks the
+     * endpoint unsupported for {@code recheck} if the status says it does not exist (400, 405 or 501).
+     *
+     * @param status  the HTTP status returned by the endpoint
+     * @param recheck how long to skip the endpoint after a 400, 405 or 501
+     * @return true if the caller should fall back for this call
+     */
+    boolean fallBackOn(int status, Duration recheck) {
+        if (status == 404) {
+            log.debug("Inventory service answered 404 to a {} request; falling back for this call", name);
+            return true;
+        }
+        if (status != 400 && status != 405 && status != 501) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (unsupportedUntil.getAndSet(now + recheck.toMillis()) <= now) {
+            log.warn("Inventory service answered {} to a {} request; falling back for {}", status, name, recheck);
+        }
+        return true;
+    }
+}
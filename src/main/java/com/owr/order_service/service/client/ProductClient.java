@@ -1,6 +1,10 @@
 package com.owr.order_service.service.client;
 
 
+import com.owr.order_service.service.metrics.OrderMetrics;
+import com.owr.order_service.service.metrics.OrderMetrics.DownstreamCall;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -15,16 +19,21 @@ import org.springframework.web.client.RestTemplate;
  * File: ProductClient
  * Created by: Ochwada
  * Created on: 11, 8/11/2025, 4:20 PM
- * Description: 
+ * Description: REST client to read unit prices from Product-Service.
+ * - Calls run through the {@code product} circuit breaker and bulkhead (see application.properties).
+ * - Every HTTP call is timed as {@code downstream.calls{client=product}} (see {@link OrderMetrics}).
  =================================================================================*/
 @Component
 @RequiredArgsConstructor
 public class ProductClient {
     private final RestTemplate restTemplate;
+    private final OrderMetrics metrics;
 
     @Value("${product.service.url}")
     private String productServiceUrl;
 
+    @CircuitBreaker(name = "product")
+    @Bulkhead(name = "product")
     public Double getUnitPrice(Long productId, String token) {
         String url = productServiceUrl + "/" + productId + "/price";
 
@@ -32,12 +41,13 @@ public class ProductClient {
         headers.setBearerAuth(token);
         HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-        ResponseEntity<Double> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                Double.class
-        );
+        ResponseEntity<Double> response = metrics.timeDownstream(DownstreamCall.PRODUCT_PRICE,
+                () -> restTemplate.exchange(
+                        url,
+                        HttpMethod.GET,
+                        entity,
+                        Double.class
+                ));
 
         if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
             throw new IllegalStateException("Product price GET failed for productId=" + productId);
@@ -0,0 +1,195 @@
+package com.owr.order_service.service.client;
+
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ProductPriceCache
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:20 AM
+ * Description: Short-TTL, size-bounded in-process cache in front of {@link ProductClient#getUnitPrice}.
+ * - Misses are loaded through {@link ProductPriceHedger} (optional request hedging).
+ =================================================================================*/
+
+/**
+ * Caches unit prices per product ID.
+ * *
+ *  - Entries expire {@code product.price-cache.ttl} after they were loaded; this is the maximum staleness
+ *    of a price used for a new order.
+ *  - At most {@code product.price-cache.max-size} products are kept; least recently used ones are evicted first.
+ *  - Concurrent misses for the same product share one call to the product service (request coalescing).
+ *    Failed loads are not cached; a load that failed only because its own caller was cancelled is not shared
+ *    with the other callers either, they load the price again.
+ *  - Hits, misses, loads and evictions are published as {@code cache.*} metrics tagged {@code cache=product.price}.
+ */
+@Component
+public class ProductPriceCache {
+
+    private final ProductPriceHedger priceHedger;
+    private final AsyncCache<Long, Double> cache;
+
+    /**
+     * When disabled every lookup goes straight to the product service.
+     */
+    private final boolean enabled;
+
+    public ProductPriceCache(
+            ProductPriceHedger priceHedger,
+            MeterRegistry meterRegistry,
+            @Value("${product.price-cache.enabled:true}") boolean enabled,
+            @Value("${product.price-cache.ttl:30s}") Duration ttl,
+            @Value("${product.price-cache.max-size:10000}") long maxSize
+    ) {
+        this.priceHedger = priceHedger;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "product.price");
+    }
+
+    /**
+     * Returns the unit price of a product, loading it from the product service on a miss.
+     * The load runs on the calling thread; other callers asking for the same product meanwhile wait for it.
+     * *
+     * If the loading caller is cancelled (its order's lookups were interrupted), its failure is not shared: the
+     * entry is dropped and the waiting callers start a new load instead of failing with it.
+     *
+     * @param productId the product ID
+     * @param token     the Bearer token used if the price has to be loaded
+     * @return the unit price
+     */
+    public Double getUnitPrice(Long productId, String token) {
+        if (!enabled) {
+            return priceHedger.getUnitPrice(productId, token);
+        }
+
+        while (true) {
+            CompletableFuture<Double> loader = new CompletableFuture<>();
+            CompletableFuture<Double> price = cache.get(productId, (id, executor) -> loader);
+
+            // Only the caller whose future was installed performs the load
+            if (price == loader) {
+                load(productId, token, loader);
+            }
+
+            try {
+                return price.join();
+            } catch (CancellationException e) {
+                // The loading caller was cancelled, this one was not: load the price again
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #getUnitPrice(Long, String)} used by the {@code reactive} profile.
+     * Shares entries, statistics and invalidation with it, but loads a missing price with {@code loader}
+     * instead of the blocking {@link ProductClient}; concurrent misses still share one load.
+     *
+     * @param productId the product ID
+     * @param loader    starts the load of a missing price
+     * @return the unit price, completed once it is cached or loaded
+     */
+    public CompletableFuture<Double> getUnitPriceAsync(Long productId, Function<Long, CompletableFuture<Double>> loader) {
+        if (!enabled) {
+            return loader.apply(productId);
+        }
+        return cache.get(productId, (id, executor) -> loader.apply(id));
+    }
+
+    /**
+     * Removes the cached price of one product, e.g. after a price change.
+     *
+     * @param productId the product ID
+     */
+    public void invalidate(Long productId) {
+        cache.synchronous().invalidate(productId);
+    }
+
+    /**
+     * Removes all cached prices.
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * @return the number of cached prices (approximate)
+     */
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    /**
+     * @return cumulative hit, miss, load and eviction statistics
+     */
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Loads a price into the installed future. A failure caused by interrupting this caller is not handed to the
+     * other callers waiting on the same future: the future is removed and cancelled, which makes them retry, and
+     * only this caller sees the error.
+     */
+    private void load(Long productId, String token, CompletableFuture<Double> loader) {
+        try {
+            loader.complete(priceHedger.getUnitPrice(productId, token));
+        } catch (RuntimeException e) {
+            if (!interrupted(e)) {
+                loader.completeExceptionally(e);
+                return;
+            }
+            cache.asMap().remove(productId, loader);
+            loader.cancel(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Whether a failed load was caused by interrupting the loading thread (e.g. a cancelled order lookup) rather
+     * than by the product service.
+     */
+    private static boolean interrupted(Throwable e) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException
+                    || cause instanceof InterruptedIOException
+                    || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    //====================================================================
+}
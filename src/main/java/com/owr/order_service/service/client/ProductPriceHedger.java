@@ -0,0 +1,266 @@
+package com.owr.order_service.service.client;
+
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ProductPriceHedger
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 10:30 PM
+ * Description: Optional request hedging for {@link ProductClient#getUnitPrice} to cut tail latency.
+ =================================================================================*/
+
+/**
+ * Price lookups are read-only and idempotent, so a slow one can safely be duplicated.
+ * *
+ *  - The first request is sent; if it has not answered after the hedge delay, a second identical request is sent
+ *    and whichever succeeds first wins. The other request is then cancelled through the executor's {@link Future},
+ *    which interrupts its thread; a product service call that does not react to the interrupt runs to the end and
+ *    its response is discarded.
+ *  - The hedge delay is the {@code product.hedge.percentile} of recent response times (a ring buffer of the last
+ *    {@code product.hedge.window} successful first requests), never below {@code product.hedge.min-delay}.
+ *    Until the buffer has filled once, {@code product.hedge.initial-delay} is used.
+ *  - A global budget keeps hedges at most {@code product.hedge.budget-percent} of all lookups, so an overloaded
+ *    product service is not hit with twice the traffic.
+ *  - Both requests go through {@link ProductClient}, i.e. through the {@code product} circuit breaker and bulkhead.
+ *  - Counters: {@code product.price.hedge} tagged {@code event=requests|fired|won|budget_exhausted};
+ *    gauge {@code product.price.hedge.delay} (ms).
+ * *
+ * Disabled by default ({@code product.hedge.enabled}); then lookups go straight to {@link ProductClient}.
+ * Servlet stack only: the {@code reactive} profile loads prices through {@link ReactiveProductClient} unhedged.
+ */
+@Component
+public class ProductPriceHedger {
+
+    /**
+     * Budget is kept in hundredths of a hedge: every lookup earns {@code budgetPercent}, a hedge costs 100.
+     */
+    private static final long HEDGE_COST = 100;
+
+    private final ProductClient productClient;
+    private final AsyncTaskExecutor executor;
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long budgetPercent;
+    private final long maxBudget;
+
+    /**
+     * Response times (ns) of recent successful first requests.
+     */
+    private final AtomicLongArray samples;
+    private final AtomicInteger sampleCount = new AtomicInteger();
+
+    /**
+     * Current hedge delay in nanoseconds, recomputed every {@code samples.length / 8} samples.
+     */
+    private volatile long delayNanos;
+
+    private final AtomicLong budget = new AtomicLong();
+
+    private final Counter requests;
+    private final Counter fired;
+    private final Counter won;
+    private final Counter budgetExhausted;
+
+    public ProductPriceHedger(
+            ProductClient productClient,
+            @Qualifier("priceHedgeExecutor") AsyncTaskExecutor executor,
+            MeterRegistry meterRegistry,
+            @Value("${product.hedge.enabled:false}") boolean enabled,
+            @Value("${product.hedge.percentile:0.95}") double percentile,
+            @Value("${product.hedge.initial-delay:200ms}") Duration initialDelay,
+            @Value("${product.hedge.min-delay:20ms}") Duration minDelay,
+            @Value("${product.hedge.window:1024}") int window,
+            @Value("${product.hedge.budget-percent:5}") long budgetPercent
+    ) {
+        this.productClient = productClient;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetPercent = budgetPercent;
+        this.maxBudget = 10 * HEDGE_COST;   // allow short bursts of up to 10 hedges
+        this.samples = new AtomicLongArray(window);
+        this.delayNanos = Math.max(initialDelay.toNanos(), minDelayNanos);
+
+        this.requests = meterRegistry.counter("product.price.hedge", "event", "requests");
+        this.fired = meterRegistry.counter("product.price.hedge", "event", "fired");
+        this.won = meterRegistry.counter("product.price.hedge", "event", "won");
+        this.budgetExhausted = meterRegistry.counter("product.price.hedge", "event", "budget_exhausted");
+        meterRegistry.gauge("product.price.hedge.delay", this, h -> h.delayNanos / 1_000_000.0);
+    }
+
+    /**
+     * Returns the unit price of a product, hedging the request if it is slow.
+     *
+     * @param productId the product ID
+     * @param token     the Bearer token forwarded to the product service
+     * @return the unit price
+     */
+    public Double getUnitPrice(Long productId, String token) {
+        if (!enabled) {
+            return productClient.getUnitPrice(productId, token);
+        }
+        requests.increment();
+        earnBudget();
+
+        long start = System.nanoTime();
+        List<Future<?>> tasks = new ArrayList<>(2);
+        CompletableFuture<Double> primary;
+        try {
+            primary = submit(productId, token, tasks);
+        } catch (RejectedExecutionException e) {
+            // No spare thread: plain, unhedged call
+            return productClient.getUnitPrice(productId, token);
+        }
+        primary.thenRun(() -> recordSample(System.nanoTime() - start));
+
+        // 1) Wait up to the hedge delay for the first request
+        try {
+            return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // slow: consider hedging below
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            cancelAll(tasks);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the price of productId=" + productId);
+        }
+
+        // 2) Fire the hedge if the budget allows, then take the first success
+        if (!spendBudget()) {
+            budgetExhausted.increment();
+            return join(primary);
+        }
+        CompletableFuture<Double> hedge;
+        try {
+            hedge = submit(productId, token, tasks);
+        } catch (RejectedExecutionException e) {
+            return join(primary);
+        }
+        fired.increment();
+
+        try {
+            return join(firstSuccess(primary, hedge));
+        } finally {
+            // The loser (if still running) is no longer needed; a no-op for requests that already finished
+            cancelAll(tasks);
+        }
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Sends one price request on the executor and exposes its result as a {@link CompletableFuture}. The executor's
+     * own {@link Future} is added to {@code tasks}; only cancelling that one interrupts the running request.
+     */
+    private CompletableFuture<Double> submit(Long productId, String token, List<Future<?>> tasks) {
+        CompletableFuture<Double> result = new CompletableFuture<>();
+        tasks.add(executor.submit(() -> {
+            try {
+                result.complete(productClient.getUnitPrice(productId, token));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }));
+        return result;
+    }
+
+    private static void cancelAll(List<Future<?>> tasks) {
+        tasks.forEach(task -> task.cancel(true));
+    }
+
+    /**
+     * Completes with the first successful result, or with the error of {@code primary} if both fail.
+     */
+    private CompletableFuture<Double> firstSuccess(CompletableFuture<Double> primary, CompletableFuture<Double> hedge) {
+        CompletableFuture<Double> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<Double> attempt : List.of(primary, hedge)) {
+            attempt.whenComplete((price, ex) -> {
+                if (ex == null) {
+                    if (result.complete(price) && attempt == hedge) {
+                        won.increment();
+                    }
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(primary.handle((p, primaryEx) -> primaryEx).join());
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Records a response time and periodically recomputes the hedge delay from the buffer.
+     */
+    private void recordSample(long nanos) {
+        int n = sampleCount.getAndIncrement();
+        int window = samples.length();
+        samples.set(Math.floorMod(n, window), nanos);
+
+        // Recompute once the buffer has filled, then every 1/8 window
+        if (n + 1 >= window && (n + 1) % Math.max(1, window / 8) == 0) {
+            long[] sorted = new long[window];
+            for (int i = 0; i < window; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.min(window - 1, Math.ceil(percentile * window) - 1);
+            delayNanos = Math.max(sorted[Math.max(0, index)], minDelayNanos);
+        }
+    }
+
+    private void earnBudget() {
+        budget.getAndUpdate(b -> Math.min(maxBudget, b + budgetPercent));
+    }
+
+    private boolean spendBudget() {
+        long before = budget.getAndUpdate(b -> b >= HEDGE_COST ? b - HEDGE_COST : b);
+        return before >= HEDGE_COST;
+    }
+
+    private static Double join(CompletableFuture<Double> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Re-throws the original exception of a failed request so callers see the same errors as for a direct call.
+     */
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException("Price lookup failed", cause);
+    }
+    //====================================================================
+}
@@ -0,0 +1,131 @@
+package com.owr.order_service.service.client;
+
+
+import com.owr.order_service.dto.response.InventoryResponse;
+import com.owr.order_service.service.metrics.OrderMetrics;
+import com.owr.order_service.service.metrics.OrderMetrics.DownstreamCall;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ReactiveInventoryClient
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 2:30 PM
+ * Description: Non-blocking (WebClient) stock lookups against Inventory-Service for the {@code reactive} profile.
+ * - Same endpoints, fallbacks and {@code inventory} circuit breaker / bulkhead as {@link InventoryClient}.
+ * - Stock decrements are not sent from here: they go through the order outbox, which uses {@link InventoryClient}
+ *   on its own executor in every profile.
+ =================================================================================*/
+@Component
+@Profile("reactive")
+public class ReactiveInventoryClient {
+
+    private final WebClient webClient;
+    private final OrderMetrics metrics;
+    private final String inventoryServiceUrl;
+    private final boolean bulkEnabled;
+    private final Duration unsupportedRecheck;
+    private final OptionalEndpoint bulkEndpoint = new OptionalEndpoint("bulk");
+
+    public ReactiveInventoryClient(
+            @Qualifier("downstreamWebClient") WebClient webClient,
+            OrderMetrics metrics,
+            @Value("${inventory.service.url}") String inventoryServiceUrl,
+            @Value("${inventory.service.bulk-enabled:false}") boolean bulkEnabled,
+            @Value("${inventory.service.unsupported-recheck:10m}") Duration unsupportedRecheck
+    ) {
+        this.webClient = webClient;
+        this.metrics = metrics;
+        this.inventoryServiceUrl = inventoryServiceUrl;
+        this.bulkEnabled = bulkEnabled;
+        this.unsupportedRecheck = unsupportedRecheck;
+    }
+
+    /**
+     * Gets the stock quantity of one product.
+     *
+     * @param productId the product ID
+     * @param token     the Bearer token for authentication
+     * @return available stock
+     */
+    @CircuitBreaker(name = InventoryClient.BACKEND)
+    @Bulkhead(name = InventoryClient.BACKEND)
+    public Mono<Integer> getStockQuantity(Long productId, String token) {
+        return fetchStockQuantity(productId, token);
+    }
+
+    /**
+     * Gets the stock quantities of several products.
+     * *
+     *  - Sends {@code GET <inventory.service.url>/batch?productIds=1&productIds=2...}; quantities are summed per
+     *    product and products missing from the response are reported with a stock of 0
+     *  - Falls back to one request per product (all in flight at once) if the bulk endpoint is not available
+     *    (400/405/501, remembered for {@code inventory.service.unsupported-recheck}) or answers 404 (this call only)
+     *
+     * @param productIds the product IDs to look up
+     * @param token      the Bearer token for authentication
+     * @return available stock per product ID
+     */
+    @CircuitBreaker(name = InventoryClient.BACKEND)
+    @Bulkhead(name = InventoryClient.BACKEND)
+    public Mono<Map<Long, Integer>> getStockQuantities(Collection<Long> productIds, String token) {
+        if (!bulkEnabled || !bulkEndpoint.isAvailable()) {
+            return fetchEach(productIds, token);
+        }
+
+        Mono<Map<Long, Integer>> bulk = webClient.get()
+                .uri(inventoryServiceUrl + "/batch", uri -> uri.queryParam("productIds", productIds).build())
+                .headers(headers -> headers.setBearerAuth(token))
+                .retrieve()
+                .bodyToMono(InventoryResponse[].class)
+                .defaultIfEmpty(new InventoryResponse[0])
+                .map(entries -> {
+                    Map<Long, Integer> stockByProductId = new LinkedHashMap<>();
+                    productIds.forEach(productId -> stockByProductId.put(productId, 0));
+                    for (InventoryResponse entry : entries) {
+                        stockByProductId.computeIfPresent(entry.productId(), (id, sum) -> sum + entry.quantity());
+                    }
+                    return stockByProductId;
+                });
+
+        return metrics.timeDownstream(DownstreamCall.INVENTORY_STOCK_BATCH, bulk)
+                .onErrorResume(WebClientResponseException.class,
+                        e -> bulkEndpoint.fallBackOn(e.getStatusCode().value(), unsupportedRecheck)
+                                ? fetchEach(productIds, token)
+                                : Mono.error(e));
+    }
+
+    //=================== Helper Functions ===============================
+
+    private Mono<Integer> fetchStockQuantity(Long productId, String token) {
+        Mono<Integer> request = webClient.get()
+                .uri(inventoryServiceUrl + "/{productId}", productId)
+                .headers(headers -> headers.setBearerAuth(token))
+                .retrieve()
+                .bodyToMono(Integer.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Inventory GET returned null body ")));
+        return metrics.timeDownstream(DownstreamCall.INVENTORY_STOCK, request);
+    }
+
+    private Mono<Map<Long, Integer>> fetchEach(Collection<Long> productIds, String token) {
+        return Flux.fromIterable(productIds)
+                .flatMapSequential(productId -> fetchStockQuantity(productId, token)
+                        .map(quantity -> Map.entry(productId, quantity)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new);
+    }
+    //====================================================================
+}
@@ -0,0 +1,53 @@
+package com.owr.order_service.service.client;
+
+
+import com.owr.order_service.service.metrics.OrderMetrics;
+import com.owr.order_service.service.metrics.OrderMetrics.DownstreamCall;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ReactiveProductClient
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 2:35 PM
+ * Description: Non-blocking (WebClient) price lookups against Product-Service for the {@code reactive} profile.
+ * - Calls run through the {@code product} circuit breaker and bulkhead, like {@link ProductClient}.
+ =================================================================================*/
+@Component
+@Profile("reactive")
+public class ReactiveProductClient {
+
+    private final WebClient webClient;
+    private final OrderMetrics metrics;
+    private final String productServiceUrl;
+
+    public ReactiveProductClient(
+            @Qualifier("downstreamWebClient") WebClient webClient,
+            OrderMetrics metrics,
+            @Value("${product.service.url}") String productServiceUrl
+    ) {
+        this.webClient = webClient;
+        this.metrics = metrics;
+        this.productServiceUrl = productServiceUrl;
+    }
+
+    @CircuitBreaker(name = "product")
+    @Bulkhead(name = "product")
+    public Mono<Double> getUnitPrice(Long productId, String token) {
+        Mono<Double> request = webClient.get()
+                .uri(productServiceUrl + "/{productId}/price", productId)
+                .headers(headers -> headers.setBearerAuth(token))
+                .retrieve()
+                .bodyToMono(Double.class)
+                .switchIfEmpty(Mono.error(
+                        () -> new IllegalStateException("Product price GET failed for productId=" + productId)));
+        return metrics.timeDownstream(DownstreamCall.PRODUCT_PRICE, request);
+    }
+}
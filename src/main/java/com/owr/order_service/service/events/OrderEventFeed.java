@@ -0,0 +1,189 @@
+package com.owr.order_service.service.events;
+
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.owr.order_service.dto.response.OrderEvent;
+import com.owr.order_service.model.Order;
+import com.owr.order_service.model.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderEventFeed
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 8:50 PM
+ * Description: Server-Sent Events feed of new orders and status changes, read from a MongoDB change stream.
+ =================================================================================*/
+
+/**
+ * Each subscriber gets its own change stream on the orders collection, so consumers learn about changes within
+ * milliseconds of the write instead of polling {@code GET /api/orders}.
+ * *
+ *  - Only inserts ({@link OrderEvent.Type#ORDER_PLACED}) and updates that set {@code status}
+ *    ({@link OrderEvent.Type#STATUS_CHANGED}) are sent; MongoDB filters out everything else (outbox bookkeeping),
+ *    so it never reaches the service.
+ *  - The SSE {@code id} of every event is its change stream resume token. A consumer that reconnects with
+ *    {@code Last-Event-ID} (browsers' EventSource does this automatically) resumes right after the last event it
+ *    received, without gaps or duplicates, as long as that point is still in the oplog. If it is not, a single
+ *    {@code resync} event is sent and the feed ends; the consumer must re-read the orders it cares about and
+ *    subscribe afresh.
+ *  - A comment line is sent every {@code order.events.heartbeat} so proxies keep idle connections open. The
+ *    heartbeats end with the change stream, so the response is closed after a {@code resync} event or an error.
+ *  - Open subscriptions are published as the gauge {@code order.events.subscribers}.
+ * *
+ * Change streams require MongoDB to run as a replica set (Atlas always does, and so do the docker-compose and load
+ * test setups); on a standalone server the feed ends with an error.
+ */
+@Slf4j
+@Component
+public class OrderEventFeed {
+
+    /**
+     * SSE event name sent when the requested resume point has left the oplog.
+     */
+    public static final String RESYNC_EVENT = "resync";
+
+    /**
+     * MongoDB error code {@code ChangeStreamHistoryLost}.
+     */
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Duration heartbeat;
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public OrderEventFeed(
+            ReactiveMongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${order.events.heartbeat:15s}") Duration heartbeat
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.heartbeat = heartbeat;
+        meterRegistry.gauge("order.events.subscribers", subscribers, AtomicInteger::get);
+    }
+
+    /**
+     * Opens the feed for one consumer.
+     *
+     * @param lastEventId the {@code id} of the last event the consumer received, or {@code null} to start with the
+     *                    next change
+     * @return a stream of order events, interleaved with heartbeat comments, that ends only with the change stream
+     * @throws IllegalArgumentException if {@code lastEventId} is not a resume token issued by this feed
+     */
+    public Flux<ServerSentEvent<OrderEvent>> subscribe(String lastEventId) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .filter(Aggregation.newAggregation(Aggregation.match(new Criteria().orOperator(
+                        Criteria.where("operationType").is("insert"),
+                        Criteria.where("operationType").is("update")
+                                .and("updateDescription.updatedFields.status").exists(true)
+                ))))
+                // customerId and totalPrice never change after placement, so the looked-up document is accurate
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            options.resumeAfter(decodeToken(lastEventId));
+        }
+
+        Flux<ServerSentEvent<OrderEvent>> events = mongoTemplate
+                .changeStream(null, mongoTemplate.getCollectionName(Order.class), options.build(), Order.class)
+                .map(OrderEventFeed::toServerSentEvent)
+                .onErrorResume(e -> {
+                    if (e instanceof MongoCommandException command
+                            && command.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                        return Flux.just(ServerSentEvent.<OrderEvent>builder().event(RESYNC_EVENT).build());
+                    }
+                    log.warn("Order event feed failed: {}", e.getMessage());
+                    return Flux.error(e);
+                });
+
+        Flux<ServerSentEvent<OrderEvent>> heartbeats = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<OrderEvent>builder().comment("keep-alive").build());
+
+        return Flux.defer(() -> {
+            subscribers.incrementAndGet();
+            // Heartbeats stop with the events (resync, error or end of the change stream), so the response ends
+            return events.publish(shared -> shared.mergeWith(heartbeats.takeUntilOther(shared.ignoreElements())))
+                    .doFinally(signal -> subscribers.decrementAndGet());
+        });
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Turns a change event into an SSE event named after its type, with the resume token as {@code id}.
+     */
+    private static ServerSentEvent<OrderEvent> toServerSentEvent(ChangeStreamEvent<Order> change) {
+        ChangeStreamDocument<Document> raw = change.getRaw();
+        // For inserts the stored order; for updates the current order (null if it was deleted meanwhile)
+        Order order = change.getBody();
+
+        OrderEvent event;
+        if (change.getOperationType() == OperationType.INSERT) {
+            event = new OrderEvent(
+                    OrderEvent.Type.ORDER_PLACED,
+                    order.getId(),
+                    order.getCustomerId(),
+                    order.getStatus(),
+                    order.getTotalPrice(),
+                    change.getTimestamp()
+            );
+        } else {
+            // The status set by this very update, not the possibly newer one of the looked-up document
+            BsonValue status = raw.getUpdateDescription().getUpdatedFields().get("status");
+            event = new OrderEvent(
+                    OrderEvent.Type.STATUS_CHANGED,
+                    orderId(raw.getDocumentKey().get("_id")),
+                    order != null ? order.getCustomerId() : null,
+                    Status.valueOf(status.asString().getValue()),
+                    order != null ? order.getTotalPrice() : null,
+                    change.getTimestamp()
+            );
+        }
+
+        return ServerSentEvent.builder(event)
+                .id(encodeToken(change.getResumeToken()))
+                .event(event.type().name())
+                .build();
+    }
+
+    private static String orderId(BsonValue id) {
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    /**
+     * A resume token is a document {@code {_data: "<hex>"}}; only the hex string is used as the event ID.
+     */
+    private static String encodeToken(BsonValue resumeToken) {
+        return resumeToken.asDocument().getString("_data").getValue();
+    }
+
+    private static BsonDocument decodeToken(String lastEventId) {
+        try {
+            HexFormat.of().parseHex(lastEventId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid Last-Event-ID: " + lastEventId);
+        }
+        return new BsonDocument("_data", new BsonString(lastEventId));
+    }
+    //====================================================================
+}
@@ -0,0 +1,160 @@
+package com.owr.order_service.service.history;
+
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.owr.order_service.dto.response.OrderPageResponse;
+import com.owr.order_service.dto.response.OrderResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*=================================================================================
+ * Project: order-service
+ * File: CustomerOrderHistoryCache
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 6:10 PM
+ * Description: Bounded in-process cache of recently viewed order history pages per customer.
+ =================================================================================*/
+
+/**
+ * Caches the pages of {@code GET /api/orders/customer/{customerId}}, keyed by customer, cursor and page size, so
+ * repeated views of the same page ("my orders", reloads, back navigation) do not query MongoDB.
+ * *
+ *  - Every customer has a generation number; cached pages are keyed by it. Invalidating a customer moves it to a
+ *    new generation, which makes all of its cached pages unreachable at once; they age out of the cache.
+ *  - Generations are drawn from one global sequence, so a customer whose generation was evicted never gets an old
+ *    number back. A page loaded while the customer was invalidated is stored under the old generation and never
+ *    served.
+ *  - At most {@code order.history.cache.max-size} pages are kept (least recently used first out), each at most
+ *    {@code order.history.cache.ttl}. The TTL bounds staleness caused by writes and stock outbox state changes on
+ *    other instances, which do not invalidate this cache.
+ *  - Hits, misses and evictions are published as {@code cache.*} metrics tagged {@code cache=order.history}.
+ */
+@Component
+public class CustomerOrderHistoryCache {
+
+    /**
+     * A cached page: one page size, starting after one cursor, of one generation of a customer's orders.
+     */
+    private record PageKey(String customerId, long generation, String cursor, int limit) { }
+
+    private final Cache<PageKey, OrderPageResponse<OrderResponse>> pages;
+    private final Cache<String, Long> generations;
+    private final AtomicLong generationSequence = new AtomicLong();
+
+    /**
+     * When disabled every page is read from MongoDB.
+     */
+    private final boolean enabled;
+
+    public CustomerOrderHistoryCache(
+            MeterRegistry meterRegistry,
+            @Value("${order.history.cache.enabled:true}") boolean enabled,
+            @Value("${order.history.cache.ttl:1m}") Duration ttl,
+            @Value("${order.history.cache.max-size:10000}") long maxSize
+    ) {
+        this.enabled = enabled;
+        this.pages = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        // One generation per customer with cached pages is enough; an evicted one only orphans its pages
+        this.generations = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .maximumSize(maxSize)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "order.history");
+    }
+
+    /**
+     * Returns a page of a customer's order history, loading and caching it on a miss.
+     * Failed loads are not cached.
+     *
+     * @param customerId the customer
+     * @param cursor     the cursor the page starts after, or {@code null} for the first page
+     * @param limit      the resolved page size
+     * @param loader     reads the page from MongoDB
+     * @return the page
+     */
+    public OrderPageResponse<OrderResponse> get(
+            String customerId,
+            String cursor,
+            int limit,
+            Supplier<OrderPageResponse<OrderResponse>> loader
+    ) {
+        if (!enabled) {
+            return loader.get();
+        }
+        PageKey key = key(customerId, cursor, limit);
+        OrderPageResponse<OrderResponse> page = pages.getIfPresent(key);
+        if (page == null) {
+            page = loader.get();
+            pages.put(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * Non-blocking variant of {@link #get(String, String, int, Supplier)} used by the {@code reactive} profile.
+     *
+     * @param customerId the customer
+     * @param cursor     the cursor the page starts after, or {@code null} for the first page
+     * @param limit      the resolved page size
+     * @param loader     reads the page from MongoDB, not yet subscribed
+     * @return the cached page, or {@code loader} caching its result
+     */
+    public Mono<OrderPageResponse<OrderResponse>> get(
+            String customerId,
+            String cursor,
+            int limit,
+            Mono<OrderPageResponse<OrderResponse>> loader
+    ) {
+        if (!enabled) {
+            return loader;
+        }
+        return Mono.defer(() -> {
+            PageKey key = key(customerId, cursor, limit);
+            OrderPageResponse<OrderResponse> page = pages.getIfPresent(key);
+            if (page != null) {
+                return Mono.just(page);
+            }
+            return loader.doOnNext(loaded -> pages.put(key, loaded));
+        });
+    }
+
+    /**
+     * Drops all cached pages of a customer. Call it after the customer's orders were written.
+     *
+     * @param customerId the customer; {@code null} is ignored
+     */
+    public void invalidate(String customerId) {
+        if (customerId != null) {
+            generations.put(customerId, generationSequence.incrementAndGet());
+        }
+    }
+
+    /**
+     * Drops all cached pages of all customers, e.g. after a bulk update whose customers are not known.
+     */
+    public void invalidateAll() {
+        generations.invalidateAll();
+        pages.invalidateAll();
+    }
+
+    //=================== Helper Functions ===============================
+
+    private PageKey key(String customerId, String cursor, int limit) {
+        long generation = generations.get(customerId, id -> generationSequence.incrementAndGet());
+        return new PageKey(customerId, generation, cursor == null ? "" : cursor, limit);
+    }
+    //====================================================================
+}
@@ -0,0 +1,285 @@
+package com.owr.order_service.service.idempotency;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.owr.order_service.dto.response.OrderResponse;
+import com.owr.order_service.exception.IdempotencyConflictException;
+import com.owr.order_service.exception.IdempotencyKeyReusedException;
+import com.owr.order_service.model.IdempotencyRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*=================================================================================
+ * Project: order-service
+ * File: IdempotencyStore
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 9:30 PM
+ * Description: Runs an order placement at most once per Idempotency-Key and replays its response for duplicates.
+ =================================================================================*/
+
+/**
+ * Two tiers:
+ *  - In memory (Caffeine, {@code order.idempotency.ttl}): duplicates reaching this instance wait for the running
+ *    request and receive its response, or get the cached response once it completed; no database access.
+ *  - MongoDB ({@code idempotency_keys}): a key is claimed by inserting an {@link IdempotencyRecord}, so only one
+ *    instance executes it. Duplicates on other instances replay the stored response, or get 409 Conflict while it
+ *    is still running. Records expire through a TTL index.
+ * *
+ * Failed requests release their key so the client can retry. A key left {@code IN_PROGRESS} by a crashed instance
+ * can be taken over after {@code order.idempotency.lock-timeout}; storing the response of a placed order is therefore
+ * retried for that long, so a transient write error does not let the key expire into a second placement. Every claim carries an owner token; completing and
+ * releasing the key are conditional on it, so a slow executor that lost its lock cannot overwrite or delete the
+ * record of the instance that took over.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+
+    /**
+     * Requests of this instance, running or completed, by scoped key.
+     */
+    private final Cache<String, Entry> local;
+
+    private record Entry(String requestHash, CompletableFuture<OrderResponse> response) { }
+
+    public IdempotencyStore(
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            @Value("${order.idempotency.ttl:24h}") Duration ttl,
+            @Value("${order.idempotency.lock-timeout:30s}") Duration lockTimeout,
+            @Value("${order.idempotency.local-max-size:100000}") long localMaxSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.local = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(localMaxSize)
+                .build();
+    }
+
+    /**
+     * Runs {@code action} unless a request with the same key has already been run.
+     *
+     * @param key     the idempotency key, scoped to the caller
+     * @param request the request body; a key may only be reused with an identical body
+     * @param action  places the order
+     * @return the response of the first request with this key
+     * @throws IdempotencyConflictException  if the first request is still running on another instance
+     * @throws IdempotencyKeyReusedException if the key was used before with a different request body
+     */
+    public OrderResponse execute(String key, Object request, Supplier<OrderResponse> action) {
+        String requestHash = hash(request);
+
+        Entry own = new Entry(requestHash, new CompletableFuture<>());
+        Entry existing = local.asMap().putIfAbsent(key, own);
+        if (existing != null) {
+            checkSameRequest(key, existing.requestHash(), requestHash);
+            return await(existing.response());
+        }
+
+        try {
+            OrderResponse response = executeOnce(key, requestHash, action);
+            own.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Waiting duplicates see the same error; later retries run again
+            own.response().completeExceptionally(e);
+            local.asMap().remove(key, own);
+            throw e;
+        }
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Claims the key in MongoDB and runs the action, or returns the response stored by another instance.
+     */
+    private OrderResponse executeOnce(String key, String requestHash, Supplier<OrderResponse> action) {
+        String owner = new ObjectId().toHexString();
+        IdempotencyRecord completed = claim(key, requestHash, owner);
+        if (completed != null) {
+            return completed.getResponse();
+        }
+
+        OrderResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            mongoTemplate.remove(owned(key, owner), IdempotencyRecord.class);
+            throw e;
+        }
+
+        complete(key, owner, response);
+        return response;
+    }
+
+    /**
+     * Stores the response of a placed order under its key. The order already exists, so a failed write is retried
+     * with backoff for up to {@code order.idempotency.lock-timeout}: a key left {@code IN_PROGRESS} would be taken
+     * over once its lock expires and the client's retry would place the order a second time.
+     */
+    private void complete(String key, String owner, OrderResponse response) {
+        long deadline = System.nanoTime() + lockTimeout.toNanos();
+        long backoffMs = 50;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long modified = mongoTemplate.updateFirst(
+                        owned(key, owner),
+                        new Update()
+                                .set("state", IdempotencyRecord.State.COMPLETED)
+                                .set("response", response)
+                                .set("expiresAt", LocalDateTime.now().plus(ttl))
+                                .unset("lockedUntil")
+                                .unset("owner"),
+                        IdempotencyRecord.class
+                ).getModifiedCount();
+                if (modified == 0) {
+                    // Ran past the lock timeout and another instance took the key over; its outcome is the stored one
+                    log.warn("Idempotency key {} was taken over before order {} completed; response not stored",
+                            key, response.id());
+                }
+                return;
+            } catch (DataAccessException e) {
+                if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs) >= deadline) {
+                    log.error("Response of order {} could not be stored for idempotency key {} after {} attempts; "
+                            + "a retry after the lock expires places the order again", response.id(), key, attempt, e);
+                    return;
+                }
+                log.warn("Storing the response of order {} for idempotency key {} failed (attempt {}), retrying: {}",
+                        response.id(), key, attempt, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while storing the response of order {} for idempotency key {}",
+                        response.id(), key);
+                return;
+            }
+            backoffMs = Math.min(backoffMs * 2, 1000);
+        }
+    }
+
+    /**
+     * Matches the record of a key only while it is in progress and held by the given owner.
+     */
+    private static Query owned(String key, String owner) {
+        return new Query(Criteria.where("_id").is(key)
+                .and("state").is(IdempotencyRecord.State.IN_PROGRESS)
+                .and("owner").is(owner));
+    }
+
+    /**
+     * Claims the key for this instance.
+     *
+     * @param owner the token recorded as the key's owner if the claim succeeds
+     * @return {@code null} if the caller now owns the key and must run the action, or the completed record to
+     * replay
+     */
+    private IdempotencyRecord claim(String key, String requestHash, String owner) {
+        // Two rounds: the existing record may expire between the failed insert and the read
+        for (int round = 0; round < 2; round++) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                mongoTemplate.insert(new IdempotencyRecord(
+                        key, requestHash, IdempotencyRecord.State.IN_PROGRESS,
+                        now.plus(lockTimeout), owner, null, now.plus(ttl)
+                ));
+                return null;
+            } catch (DuplicateKeyException e) {
+                // Key already known; inspect it below
+            }
+
+            IdempotencyRecord existing = mongoTemplate.findById(key, IdempotencyRecord.class);
+            if (existing == null) {
+                continue;
+            }
+            checkSameRequest(key, existing.getRequestHash(), requestHash);
+            if (existing.getState() == IdempotencyRecord.State.COMPLETED) {
+                return existing;
+            }
+
+            // Still in progress: take it over only if the executing instance's lock has expired
+            IdempotencyRecord takenOver = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(key)
+                            .and("state").is(IdempotencyRecord.State.IN_PROGRESS)
+                            .and("lockedUntil").lt(now)),
+                    new Update().set("lockedUntil", now.plus(lockTimeout)).set("owner", owner),
+                    IdempotencyRecord.class
+            );
+            if (takenOver != null) {
+                return null;
+            }
+            break;
+        }
+        throw new IdempotencyConflictException(
+                "A request with this Idempotency-Key is still being processed; retry later"
+        );
+    }
+
+    /**
+     * Rejects reuse of a key with a different request body.
+     */
+    private static void checkSameRequest(String key, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(
+                    "Idempotency-Key " + key.substring(key.indexOf(':') + 1) + " was already used for a different request"
+            );
+        }
+    }
+
+    /**
+     * Waits for the response of a request running (or completed) on this instance.
+     */
+    private static OrderResponse await(CompletableFuture<OrderResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * SHA-256 of the JSON form of the request.
+     */
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash request for idempotency check", e);
+        }
+    }
+    //====================================================================
+}
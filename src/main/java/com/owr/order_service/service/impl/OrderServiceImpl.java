@@ -2,27 +2,51 @@ package com.owr.order_service.service.impl;
 
 
 import com.owr.order_service.dto.request.CreateOrderRequest;
+import com.owr.order_service.dto.request.OrderFilterRequest;
 import com.owr.order_service.dto.request.OrderItemRequest;
+import com.owr.order_service.dto.response.BatchOrderResponse;
+import com.owr.order_service.dto.response.BatchOrderResult;
+import com.owr.order_service.dto.response.BulkStatusUpdateResponse;
 import com.owr.order_service.dto.response.OrderLineItemResponse;
+import com.owr.order_service.dto.response.OrderPageResponse;
 import com.owr.order_service.dto.response.OrderResponse;
+import com.owr.order_service.dto.response.OrderSummaryResponse;
+import com.owr.order_service.dto.response.StatusUpdateResult;
+import com.owr.order_service.exception.InvalidStatusTransitionException;
 import com.owr.order_service.exception.OrderNotFoundException;
 import com.owr.order_service.mapper.OrderMapper;
 import com.owr.order_service.model.Order;
 import com.owr.order_service.model.OrderLineItem;
+import com.owr.order_service.model.OrderSummary;
 import com.owr.order_service.model.Status;
+import com.owr.order_service.repository.OrderRangeQuery;
 import com.owr.order_service.repository.OrderRepository;
 import com.owr.order_service.service.OrderService;
-import com.owr.order_service.service.client.InventoryClient;
-import com.owr.order_service.service.client.ProductClient;
+import com.owr.order_service.service.history.CustomerOrderHistoryCache;
+import com.owr.order_service.service.lookup.OrderLookupPipeline;
+import com.owr.order_service.service.metrics.OrderMetrics;
+import com.owr.order_service.service.metrics.OrderMetrics.Mode;
+import com.owr.order_service.service.metrics.OrderMetrics.Stage;
+import com.owr.order_service.service.outbox.StockOutboxDispatcher;
+import com.owr.order_service.service.stats.OrderStatsStore;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /*=================================================================================
  * Project: order-service
@@ -36,33 +60,90 @@ import java.util.stream.Collectors;
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository repository;
-    private final InventoryClient client;
     private final OrderMapper mapper;
-    private final ProductClient productClient;
+    private final OrderLookupPipeline lookupPipeline;
+    private final StockOutboxDispatcher outboxDispatcher;
+    private final OrderMetrics metrics;
+    private final CustomerOrderHistoryCache historyCache;
+    private final OrderStatsStore statsStore;
+
+    /**
+     * Page size used when the client does not ask for one.
+     */
+    @Value("${order.page.default-size:50}")
+    private int defaultPageSize;
+
+    /**
+     * Upper bound for the page size requested by a client.
+     */
+    @Value("${order.page.max-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Upper bound for the number of orders in one bulk request.
+     */
+    @Value("${order.bulk.max-size:1000}")
+    private int maxBulkSize;
 
 
     /**
-     * Retrieves all saved orders from the database and maps them to response DTOs.
+     * Retrieves one page of orders, newest first.
+     * *
+     * Pages are addressed by the ID of their last order (keyset pagination on {@code _id}), so every page costs
+     * one index range scan no matter how deep the client has paged. One extra order is fetched to find out
+     * whether a next page exists.
      *
-     * @return list of all orders
+     * @param cursor the ID of the last order of the previous page, or {@code null} for the first page
+     * @param limit  the requested page size; defaults to {@code order.page.default-size},
+     *               capped at {@code order.page.max-size}
+     * @return the page of orders and the cursor of the next page
      */
     @Override
-    public List<OrderResponse> getAllOrders() {
-        List<Order> orders = repository.findAll();
-        return orders.stream()
-                .map(mapper::toResponse)
-                .toList();
+    public OrderPageResponse<OrderResponse> getOrders(String cursor, Integer limit) {
+        return fetchPage(cursor, limit, Order.class, Order::getId, mapper::toResponse);
+    }
+
+    /**
+     * Retrieves one page of order summaries, newest first, with the same keyset pagination as
+     * {@link #getOrders(String, Integer)}.
+     * *
+     * The {@link OrderSummary} projection makes MongoDB return only id, status, total price and creation time.
+     *
+     * @param cursor the ID of the last order of the previous page, or {@code null} for the first page
+     * @param limit  the requested page size
+     * @return the page of summaries and the cursor of the next page
+     */
+    @Override
+    public OrderPageResponse<OrderSummaryResponse> getOrderSummaries(String cursor, Integer limit) {
+        return fetchPage(cursor, limit, OrderSummary.class, OrderSummary::getId, mapper::toSummaryResponse);
+    }
+
+    /**
+     * Streams the matching orders from a Mongo cursor and maps them one by one to response DTOs.
+     *
+     * @param filter optional date range, status and customer filters
+     * @return a stream of matching orders; must be closed by the caller to release the cursor
+     */
+    @Override
+    public Stream<OrderResponse> streamOrders(OrderFilterRequest filter) {
+        return repository.streamRange(toRangeQuery(filter, null, 0, false))
+                .map(mapper::toResponse);
     }
 
     /**
      * Validates stock availability and places a new order.
      * *
      * This method performs the following steps:
+     *  - Fetches available stock and unit prices for all requested products in parallel
      *  - Validates available stock for each requested product
      *  - Converts the incoming {@link CreateOrderRequest} into an {@link Order} entity
-     *  - Saves the order in the database
-     *  - Reduces stock in the inventory service for each item
+     *  - Saves the order in the database together with its pending stock decrement (outbox entry), and drops the
+     *    customer's cached order history pages; the order is counted in the {@link OrderStatsStore}
+     *  - Hands the stock decrement to the {@link StockOutboxDispatcher}, which sends it in the background and
+     *    retries it until the inventory service confirms it
      *  - Maps the saved entity to a {@link OrderResponse} DTO
+     * *
+     * Each step is timed as {@code order.place.stage{mode=single}}, see {@link OrderMetrics}.
      *
      * <p>MongoDB handles the generation of the order ID and timestamp automatically.</p>
      *
@@ -74,73 +155,484 @@ public class OrderServiceImpl implements OrderService {
     public OrderResponse placeOrder(CreateOrderRequest request, String token) {
 
         if (request.items() == null || request.items().isEmpty()) {
+            metrics.ordersRejected(Mode.SINGLE, 1);
             throw new IllegalArgumentException("Order must contain at least one item.");
         }
 
-        // 1. Validate available stock using authenticated request
-        for (var item : request.items()) {
-            int available = client.getStockQuantity(item.productId(), token);
-            if (item.quantity() > available) {
+        // 1) Fetch available stock and unit prices for all distinct products concurrently
+        long start = System.nanoTime();
+        Map<Long, Integer> quantityByProductId = OrderMapper.quantityByProductId(request.items());
+        OrderLookupPipeline.LookupResult lookup = lookupPipeline.lookup(quantityByProductId.keySet(), token);
+        start = metrics.recordStage(Mode.SINGLE, Stage.LOOKUP, start);
+
+        // 2) Validate available stock against the total quantity requested per product
+        int units = 0;
+        for (Map.Entry<Long, Integer> entry : quantityByProductId.entrySet()) {
+            // A product missing from the inventory answer counts as out of stock (400), not as a server error
+            int available = lookup.stockByProductId().getOrDefault(entry.getKey(), 0);
+            if (entry.getValue() > available) {
+                metrics.ordersRejected(Mode.SINGLE, 1);
                 throw new IllegalArgumentException(
-                        "Insufficient stock for ProductId: " + item.productId()
+                        "Insufficient stock for ProductId: " + entry.getKey()
                 );
             }
+            units += entry.getValue();
         }
+        start = metrics.recordStage(Mode.SINGLE, Stage.VALIDATE, start);
+
+        // 3) Map to entity WITH prices, then save it together with its outbox entry (one atomic write)
+        Order order = mapper.toEntity(request, lookup.priceByProductId());
+        order.setOutbox(outboxDispatcher.newEntry());
+        start = metrics.recordStage(Mode.SINGLE, Stage.MAP, start);
 
-        // 2) Fetch unit prices (product/catalog service)
-        Map<Long, Double> priceByProductId = request.items().stream()
-                .map(OrderItemRequest::productId)                  // Stream<Long>
-                .distinct()
-                .collect(Collectors.toMap(
-                        Function.identity(),                           // key: Long productId
-                        pid -> productClient.getUnitPrice(pid, token)  // val: Double price
-                ));
-        // 3) Map to entity WITH prices, then save
-        Order order = mapper.toEntity(request, priceByProductId);
         Order savedOrder = repository.save(order);
+        historyCache.invalidate(savedOrder.getCustomerId());
+        statsStore.orderPlaced(savedOrder);
+        start = metrics.recordStage(Mode.SINGLE, Stage.SAVE, start);
 
 
-        // 4) Decrease stock
-        for (var item : request.items()) {
-            client.decreaseStock(item.productId(), item.quantity(), token);
+        // 4) Decrease stock in the background; the outbox guarantees it happens eventually
+        outboxDispatcher.dispatchAsync(List.of(savedOrder), token);
+        metrics.recordStage(Mode.SINGLE, Stage.DISPATCH, start);
+
+        metrics.orderAccepted(Mode.SINGLE, request.items().size(), units);
+        return mapper.toResponse(savedOrder);
+    }
+
+    /**
+     * Places many orders in one go.
+     * *
+     *  1. Checks each order on its own (items present, product IDs set, quantities positive); malformed orders are
+     *     rejected without affecting the rest of the batch.
+     *  2. Fetches stock and unit prices once for the union of all product IDs.
+     *  3. Allocates stock to the orders in request order; an order that no longer fits the remaining stock is
+     *     rejected, so the accepted orders never oversell a product.
+     *  4. Assigns IDs and inserts all accepted orders with one unordered {@code bulkWrite}; documents the database
+     *     refuses are rejected individually.
+     *  5. Hands the stock decrements of the stored orders to the {@link StockOutboxDispatcher}; each order carries
+     *     its own outbox entry, written with the order.
+     * *
+     * Steps are timed as {@code order.place.stage{mode=batch}}, see {@link OrderMetrics}.
+     * Compared to {@link #placeOrder(CreateOrderRequest, String)} per order, a batch of N orders costs one lookup
+     * round-trip and one database round-trip instead of N of each.
+     *
+     * @param requests the orders to place
+     * @param token    the Bearer token forwarded to the downstream services
+     * @return per-order results in request order
+     */
+    @Override
+    public BatchOrderResponse placeOrders(List<CreateOrderRequest> requests, String token) {
+        if (requests.size() > maxBulkSize) {
+            throw new IllegalArgumentException(
+                    "At most " + maxBulkSize + " orders can be placed at once, got " + requests.size()
+            );
         }
 
+        BatchOrderResult[] results = new BatchOrderResult[requests.size()];
+        long start = System.nanoTime();
 
-        return mapper.toResponse(savedOrder);
+        // 1) Per-order checks; total requested quantity per product for each valid order
+        Map<Integer, Map<Long, Integer>> quantitiesByIndex = new LinkedHashMap<>();
+        Set<Long> productIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String problem = validate(requests.get(i));
+            if (problem != null) {
+                results[i] = BatchOrderResult.rejected(i, problem);
+                continue;
+            }
+            Map<Long, Integer> quantities = OrderMapper.quantityByProductId(requests.get(i).items());
+            quantitiesByIndex.put(i, quantities);
+            productIds.addAll(quantities.keySet());
+        }
+        start = metrics.recordStage(Mode.BATCH, Stage.VALIDATE, start);
+
+        // 2) One lookup for every product of the batch
+        OrderLookupPipeline.LookupResult lookup = productIds.isEmpty()
+                ? new OrderLookupPipeline.LookupResult(Map.of(), Map.of())
+                : lookupPipeline.lookup(productIds, token);
+        start = metrics.recordStage(Mode.BATCH, Stage.LOOKUP, start);
+
+        // 3) Allocate stock in request order
+        Map<Long, Integer> remaining = new HashMap<>(lookup.stockByProductId());
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        quantitiesByIndex.forEach((index, quantities) -> {
+            Long shortProductId = quantities.entrySet().stream()
+                    .filter(e -> e.getValue() > remaining.getOrDefault(e.getKey(), 0))
+                    .map(Map.Entry::getKey)
+                    .findFirst()
+                    .orElse(null);
+            if (shortProductId != null) {
+                results[index] = BatchOrderResult.rejected(index, "Insufficient stock for ProductId: " + shortProductId);
+                return;
+            }
+            quantities.forEach((productId, quantity) -> remaining.merge(productId, -quantity, Integer::sum));
+
+            Order order = mapper.toEntity(requests.get(index), lookup.priceByProductId());
+            order.setId(new ObjectId().toHexString());
+            order.setOutbox(outboxDispatcher.newEntry());
+            acceptedIndexes.add(index);
+            orders.add(order);
+        });
+        start = metrics.recordStage(Mode.BATCH, Stage.MAP, start);
+
+        // 4) One unordered bulk insert
+        Set<Integer> failed = repository.insertAllUnordered(orders);
+        start = metrics.recordStage(Mode.BATCH, Stage.SAVE, start);
+
+        List<Order> stored = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            if (failed.contains(i)) {
+                results[index] = BatchOrderResult.rejected(index, "Order could not be stored");
+                continue;
+            }
+            results[index] = BatchOrderResult.accepted(index, orders.get(i).getId());
+            stored.add(orders.get(i));
+            statsStore.orderPlaced(orders.get(i));
+            metrics.orderAccepted(Mode.BATCH, requests.get(index).items().size(),
+                    quantitiesByIndex.get(index).values().stream().mapToInt(Integer::intValue).sum());
+        }
+        stored.stream().map(Order::getCustomerId).distinct().forEach(historyCache::invalidate);
+
+        // 5) Decrease stock in the background
+        outboxDispatcher.dispatchAsync(stored, token);
+        metrics.recordStage(Mode.BATCH, Stage.DISPATCH, start);
+
+        int accepted = stored.size();
+        metrics.ordersRejected(Mode.BATCH, requests.size() - accepted);
+        return new BatchOrderResponse(accepted, requests.size() - accepted, Arrays.asList(results));
     }
 
     /**
      * Updates the status of an existing order.
+     * *
+     * The update is a single conditional {@code findAndModify}: the status is only written if the order's current
+     * status allows the transition (see {@link Status#canTransitionTo(Status)}), so concurrent updates cannot
+     * overwrite each other and only the {@code status} field is rewritten.
      *
      * @param orderId   the ID of the order to update
      * @param newStatus the new {@link Status} to set (e.g., SHIPPED, DELIVERED)
-     * @throws OrderNotFoundException if no order exists with the given ID
+     * @return the updated order
+     * @throws OrderNotFoundException           if no order exists with the given ID
+     * @throws InvalidStatusTransitionException if the order's current status does not allow the transition
      */
     @Override
     public OrderResponse  updateOrderStatus(String orderId, Status newStatus) {
+        Order previous = repository.transitionStatus(orderId, newStatus);
+        if (previous != null) {
+            statsStore.statusChanged(previous.getStatus(), newStatus);
+            historyCache.invalidate(previous.getCustomerId());
+            previous.setStatus(newStatus);
+            return mapper.toResponse(previous);
+        }
+
+        // Not updated: find out why (only on the failure path)
         Order order = repository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
 
-        order.setStatus(newStatus);
-
-        Order updatedOrder = repository.save(order);
-        return mapper.toResponse(updatedOrder);
+        throw new InvalidStatusTransitionException(
+                "Order " + orderId + " cannot move from " + order.getStatus() + " to " + newStatus
+        );
     }
 
+    /**
+     * Moves many orders to the same status.
+     * *
+     *  1. Reads the current status of all requested orders with one projected query.
+     *  2. Classifies them: missing orders are NOT_FOUND, orders whose status does not allow the transition are
+     *     ILLEGAL_TRANSITION.
+     *  3. Updates the remaining orders with one unordered {@code bulkWrite}; each update only matches while the order
+     *     still has the status read in step 1.
+     *  4. Orders the bulk write did not change (a concurrent update changed them in between) are reported as
+     *     ILLEGAL_TRANSITION, even if the concurrent update happened to set the same status. UPDATED therefore
+     *     always means this request moved the order from the reported previous status.
+     *
+     * @param orderIds  the IDs of the orders to update
+     * @param newStatus the new {@link Status} to set
+     * @return per-order results in request order
+     */
     @Override
-    public List<OrderResponse> getOrdersByDateRange(LocalDate dateFrom, LocalDate dateTo) {
+    public BulkStatusUpdateResponse updateOrderStatuses(List<String> orderIds, Status newStatus) {
+        List<String> ids = orderIds.stream().distinct().toList();
+        if (ids.size() > maxBulkSize) {
+            throw new IllegalArgumentException(
+                    "At most " + maxBulkSize + " orders can be updated at once, got " + ids.size()
+            );
+        }
 
-        LocalDate from = dateFrom != null ? dateFrom : LocalDate.now();
-        LocalDate to = dateTo != null ? dateTo : from;
+        // 1) + 2) Read current statuses and pick the orders that may move to the new status
+        Map<String, Status> previousById = repository.findStatusesByIds(ids);
+        List<String> candidates = ids.stream()
+                .filter(id -> previousById.containsKey(id) && previousById.get(id).canTransitionTo(newStatus))
+                .toList();
 
-        LocalDateTime start = from.atStartOfDay();
-        LocalDateTime end = from.atTime(23,59,59);
+        // 3) One bulk write with an update per order, conditional on the status just read
+        Map<String, Status> expectedById = new LinkedHashMap<>();
+        candidates.forEach(id -> expectedById.put(id, previousById.get(id)));
+        Set<String> updatedIds = candidates.isEmpty()
+                ? Set.of()
+                : repository.bulkTransitionStatus(expectedById, newStatus);
+        if (!updatedIds.isEmpty()) {
+            // The customers of the updated orders are not read; bulk updates are rare enough to drop all histories
+            historyCache.invalidateAll();
+        }
 
-        List<Order> orders = repository.findByCreatedAtBetween(start, end);
-        return orders.stream()
-                .map(mapper:: toResponse)
+        List<StatusUpdateResult> results = ids.stream()
+                .map(id -> {
+                    Status previous = previousById.get(id);
+                    StatusUpdateResult.Outcome outcome;
+                    if (previous == null) {
+                        outcome = StatusUpdateResult.Outcome.NOT_FOUND;
+                    } else if (!updatedIds.contains(id)) {
+                        // 4) Not a candidate, or lost the race with a concurrent update
+                        outcome = StatusUpdateResult.Outcome.ILLEGAL_TRANSITION;
+                    } else {
+                        outcome = StatusUpdateResult.Outcome.UPDATED;
+                    }
+                    return new StatusUpdateResult(id, outcome, previous);
+                })
                 .toList();
+
+        // Only transitions the conditional bulk write confirmed are counted, so the stats do not drift on races
+        int updated = 0;
+        for (StatusUpdateResult result : results) {
+            if (result.outcome() == StatusUpdateResult.Outcome.UPDATED) {
+                statsStore.statusChanged(result.previousStatus(), newStatus);
+                updated++;
+            }
+        }
+        return new BulkStatusUpdateResponse(newStatus, updated, results);
+    }
+
+    /**
+     * Retrieves one page of the orders matching the filter, newest first like the unfiltered pages.
+     * *
+     * Dates are turned into the half-open interval {@code [dateFrom 00:00, dateTo + 1 day 00:00)} on
+     * {@code createdAt}; status and customer filters, the cursor and the limit are all applied by MongoDB.
+     *
+     * @param filter the date range, status and customer filters
+     * @param cursor the cursor of the previous page, or {@code null} for the first page
+     * @param limit  the requested page size
+     * @return the page of orders and the cursor of the next page
+     */
+    @Override
+    public OrderPageResponse<OrderResponse> getOrdersByFilter(OrderFilterRequest filter, String cursor, Integer limit) {
+        int size = pageSize(limit, defaultPageSize, maxPageSize);
+        OrderRangeQuery.Cursor after = rangeCursor(cursor);
+
+        List<Order> orders = repository.findRange(toRangeQuery(filter, after, size + 1, true));
+        return toRangePage(orders, size, mapper);
+    }
+
+    /**
+     * Retrieves one page of a customer's orders, newest first.
+     * *
+     * The page is one range scan of the {@code (customerId, createdAt, _id)} index in index order. Pages are served
+     * from the {@link CustomerOrderHistoryCache} when possible; placing orders or changing their status drops the
+     * customer's cached pages.
+     *
+     * @param customerId the customer whose orders are returned
+     * @param cursor     the cursor of the previous page, or {@code null} for the first page
+     * @param limit      the requested page size
+     * @return the page of orders and the cursor of the next page
+     */
+    @Override
+    public OrderPageResponse<OrderResponse> getCustomerOrders(String customerId, String cursor, Integer limit) {
+        int size = pageSize(limit, defaultPageSize, maxPageSize);
+        OrderRangeQuery.Cursor after = rangeCursor(cursor);
+
+        return historyCache.get(customerId, cursor, size, () -> toRangePage(
+                repository.findRange(customerRangeQuery(customerId, after, size + 1)), size, mapper
+        ));
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Fetches one keyset page of orders (newest first) as the given projection type and maps it to DTOs.
+     * One extra order is fetched to find out whether a next page exists.
+     *
+     * @param cursor the ID of the last order of the previous page, or {@code null} for the first page
+     * @param limit  the requested page size
+     * @param type   the entity or projection type to read
+     * @param idOf   extracts the order ID from a read element (used as the next cursor)
+     * @param toDto  maps a read element to its response DTO
+     * @return the mapped page and the cursor of the next page
+     */
+    private <T, R> OrderPageResponse<R> fetchPage(
+            String cursor,
+            Integer limit,
+            Class<T> type,
+            Function<T, String> idOf,
+            Function<T, R> toDto
+    ) {
+        int size = pageSize(limit, defaultPageSize, maxPageSize);
+        String after = idCursor(cursor);
+        PageRequest page = idPageRequest(size);
+
+        List<T> orders = after == null
+                ? repository.findAllBy(page, type)
+                : repository.findByIdLessThan(after, page, type);
+        return toIdPage(orders, size, idOf, toDto);
+    }
+
+    /**
+     * Checks a single order of a batch.
+     *
+     * @param request the order
+     * @return why the order is invalid, or {@code null} if it is valid
+     */
+    private static String validate(CreateOrderRequest request) {
+        if (request == null || request.items() == null || request.items().isEmpty()) {
+            return "Order must contain at least one item.";
+        }
+        for (OrderItemRequest item : request.items()) {
+            if (item == null || item.productId() == null) {
+                return "Every item must have a productId.";
+            }
+            if (item.quantity() < 1) {
+                return "Quantity must be at least 1 for ProductId: " + item.productId();
+            }
+        }
+        return null;
     }
 
+    /**
+     * Translates the client filters into a range query with a half-open {@code createdAt} interval.
+     * *
+     *  - {@code dateFrom} only: that single day
+     *  - {@code dateTo} only: everything up to and including that day
+     *  - neither: no date restriction
+     *
+     * @param filter the client filters
+     * @param after       the keyset position to resume after, or {@code null}
+     * @param limit       the maximum number of orders, 0 for unlimited
+     * @param newestFirst newest first (pages) or oldest first (export)
+     * @return the range query
+     */
+    static OrderRangeQuery toRangeQuery(OrderFilterRequest filter, OrderRangeQuery.Cursor after, int limit,
+                                        boolean newestFirst) {
+        LocalDate fromDay = filter.dateFrom();
+        LocalDate toDay = filter.dateTo() != null ? filter.dateTo() : fromDay;
+
+        if (fromDay != null && toDay.isBefore(fromDay)) {
+            throw new IllegalArgumentException("dateTo must not be before dateFrom");
+        }
 
+        return new OrderRangeQuery(
+                fromDay != null ? fromDay.atStartOfDay() : null,
+                toDay != null ? toDay.plusDays(1).atStartOfDay() : null,   // exclusive upper bound
+                filter.status(),
+                filter.customerId(),
+                after,
+                limit,
+                newestFirst
+        );
+    }
+
+    /**
+     * Builds the range query of a customer's order history: newest first, no date or status restriction.
+     *
+     * @param customerId the customer
+     * @param after      the keyset position to resume after, or {@code null}
+     * @param limit      the maximum number of orders
+     * @return the range query
+     */
+    static OrderRangeQuery customerRangeQuery(String customerId, OrderRangeQuery.Cursor after, int limit) {
+        return new OrderRangeQuery(null, null, null, customerId, after, limit, true);
+    }
+
+    /**
+     * Turns the result of a range query that asked for one order more than {@code size} into a page; the extra
+     * order only tells whether a next page exists.
+     *
+     * @param orders the orders read, at most {@code size + 1}
+     * @param size   the page size
+     * @param mapper maps the orders to DTOs
+     * @return the page and the cursor of the next page
+     */
+    static OrderPageResponse<OrderResponse> toRangePage(List<Order> orders, int size, OrderMapper mapper) {
+        boolean hasNext = orders.size() > size;
+        List<Order> items = hasNext ? orders.subList(0, size) : orders;
+        Order last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return new OrderPageResponse<>(
+                items.stream().map(mapper::toResponse).toList(),
+                hasNext ? new OrderRangeQuery.Cursor(last.getCreatedAt(), last.getId()).encode() : null
+        );
+    }
+
+    /**
+     * Decodes the cursor of a range query page. Shared with {@link ReactiveOrderServiceImpl}.
+     *
+     * @param cursor the cursor sent by the client, may be {@code null} or blank for the first page
+     * @return the keyset position to resume after, or {@code null} for the first page
+     */
+    static OrderRangeQuery.Cursor rangeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : OrderRangeQuery.Cursor.decode(cursor);
+    }
+
+    /**
+     * Validates the cursor of an ID-keyed page ({@link #getOrders}, {@link #getOrderSummaries}).
+     * Shared with {@link ReactiveOrderServiceImpl}.
+     *
+     * @param cursor the ID of the last order of the previous page, may be {@code null} or blank for the first page
+     * @return the order ID to continue below, or {@code null} for the first page
+     * @throws IllegalArgumentException if the cursor is not an order ID
+     */
+    static String idCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        if (!ObjectId.isValid(cursor)) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return cursor;
+    }
+
+    /**
+     * Requests one order more than {@code size}, newest ID first; the extra order only tells whether a next page
+     * exists.
+     */
+    static PageRequest idPageRequest(int size) {
+        return PageRequest.of(0, size + 1, Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    /**
+     * Turns the result of an {@link #idPageRequest} into a page whose cursor is the ID of its last order.
+     *
+     * @param orders the orders read, at most {@code size + 1}
+     * @param size   the page size
+     * @param idOf   extracts the order ID from a read element
+     * @param toDto  maps a read element to its response DTO
+     * @return the page and the cursor of the next page
+     */
+    static <T, R> OrderPageResponse<R> toIdPage(List<T> orders, int size, Function<T, String> idOf,
+                                                Function<T, R> toDto) {
+        boolean hasNext = orders.size() > size;
+        List<T> items = hasNext ? orders.subList(0, size) : orders;
+
+        return new OrderPageResponse<>(
+                items.stream().map(toDto).toList(),
+                hasNext ? idOf.apply(items.get(items.size() - 1)) : null
+        );
+    }
+
+    /**
+     * Resolves the page size requested by a client against the configured default and maximum.
+     * Shared with {@link ReactiveOrderServiceImpl}.
+     *
+     * @param limit           the requested page size, may be {@code null}
+     * @param defaultPageSize the size used when none is requested
+     * @param maxPageSize     the largest size allowed
+     * @return a page size between 1 and {@code maxPageSize}
+     */
+    static int pageSize(Integer limit, int defaultPageSize, int maxPageSize) {
+        if (limit == null || limit < 1) {
+            return defaultPageSize;
+        }
+        return Math.min(limit, maxPageSize);
+    }
+    //====================================================================
 }
@@ -0,0 +1,286 @@
+package com.owr.order_service.service.impl;
+
+
+import com.owr.order_service.dto.request.CreateOrderRequest;
+import com.owr.order_service.dto.request.OrderFilterRequest;
+import com.owr.order_service.dto.response.BatchOrderResponse;
+import com.owr.order_service.dto.response.BulkStatusUpdateResponse;
+import com.owr.order_service.dto.response.OrderPageResponse;
+import com.owr.order_service.dto.response.OrderResponse;
+import com.owr.order_service.dto.response.OrderSummaryResponse;
+import com.owr.order_service.exception.InvalidStatusTransitionException;
+import com.owr.order_service.exception.OrderNotFoundException;
+import com.owr.order_service.mapper.OrderMapper;
+import com.owr.order_service.model.Order;
+import com.owr.order_service.model.OrderSummary;
+import com.owr.order_service.model.Status;
+import com.owr.order_service.repository.OrderRangeQuery;
+import com.owr.order_service.repository.ReactiveOrderRepository;
+import com.owr.order_service.service.ReactiveOrderService;
+import com.owr.order_service.service.client.ProductPriceCache;
+import com.owr.order_service.service.client.ProductPriceHedger;
+import com.owr.order_service.service.client.ReactiveInventoryClient;
+import com.owr.order_service.service.client.ReactiveProductClient;
+import com.owr.order_service.service.history.CustomerOrderHistoryCache;
+import com.owr.order_service.service.lookup.OrderLookupPipeline.LookupResult;
+import com.owr.order_service.service.metrics.OrderMetrics;
+import com.owr.order_service.service.metrics.OrderMetrics.Mode;
+import com.owr.order_service.service.metrics.OrderMetrics.Stage;
+import com.owr.order_service.service.outbox.StockOutboxDispatcher;
+import com.owr.order_service.service.stats.OrderStatsStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ReactiveOrderServiceImpl
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 2:50 PM
+ * Description: Non-blocking implementation of {@link ReactiveOrderService} (WebClient + reactive MongoDB).
+ =================================================================================*/
+
+/**
+ * Active with the {@code reactive} profile. No request thread is held while waiting for the inventory service, the
+ * product service or MongoDB, so the number of checkouts in flight is bounded by memory and the downstream
+ * connection pools rather than by a thread pool.
+ * *
+ *  - Single orders, status updates, pages and exports run fully non-blocking.
+ *  - Stock decrements are handed to the {@link StockOutboxDispatcher} exactly as in {@link OrderServiceImpl}.
+ *  - Prices are read through the {@link ProductPriceCache}, but misses go straight to {@link ReactiveProductClient}:
+ *    {@link ProductPriceHedger} is blocking and is not applied on this stack, so {@code product.hedge.*} has no
+ *    effect here. A slow price lookup is bounded by {@code order.lookup.timeout-ms}.
+ *  - Order history pages share the {@link CustomerOrderHistoryCache} with {@link OrderServiceImpl}, order
+ *    statistics the {@link OrderStatsStore} (in-memory counters; reads and rebuilds run on bounded-elastic).
+ *  - The bulk operations ({@code placeOrders}, {@code updateOrderStatuses}) delegate to {@link OrderServiceImpl} on
+ *    the bounded-elastic scheduler: they are rare, already amortise their round-trips, and keep one implementation
+ *    of their allocation and race handling.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOrderServiceImpl implements ReactiveOrderService {
+
+    private final ReactiveOrderRepository repository;
+    private final OrderMapper mapper;
+    private final ReactiveInventoryClient inventoryClient;
+    private final ReactiveProductClient productClient;
+    private final ProductPriceCache priceCache;
+    private final StockOutboxDispatcher outboxDispatcher;
+    private final OrderMetrics metrics;
+    private final CustomerOrderHistoryCache historyCache;
+    private final OrderStatsStore statsStore;
+    private final OrderServiceImpl blockingService;
+
+    /**
+     * Page size used when the client does not ask for one.
+     */
+    @Value("${order.page.default-size:50}")
+    private int defaultPageSize;
+
+    /**
+     * Upper bound for the page size requested by a client.
+     */
+    @Value("${order.page.max-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Overall deadline for all lookups of one order, in milliseconds.
+     */
+    @Value("${order.lookup.timeout-ms:3000}")
+    private long lookupTimeoutMs;
+
+
+    @Override
+    public Mono<OrderPageResponse<OrderResponse>> getOrders(String cursor, Integer limit) {
+        return fetchPage(cursor, limit, Order.class, Order::getId, mapper::toResponse);
+    }
+
+    @Override
+    public Mono<OrderPageResponse<OrderSummaryResponse>> getOrderSummaries(String cursor, Integer limit) {
+        return fetchPage(cursor, limit, OrderSummary.class, OrderSummary::getId, mapper::toSummaryResponse);
+    }
+
+    @Override
+    public Flux<OrderResponse> streamOrders(OrderFilterRequest filter) {
+        return Flux.defer(() -> repository.findRange(OrderServiceImpl.toRangeQuery(filter, null, 0, false)))
+                .map(mapper::toResponse);
+    }
+
+    /**
+     * Validates stock availability and places a new order; same steps as
+     * {@link OrderServiceImpl#placeOrder(CreateOrderRequest, String)}.
+     * *
+     * Stock and all prices are requested at once; prices come from the shared {@link ProductPriceCache}.
+     * The first failing lookup cancels the others, and the lookups as a whole are bounded by
+     * {@code order.lookup.timeout-ms}.
+     *
+     * @param request the order creation request from the client
+     * @param token   the Bearer token forwarded to the downstream services
+     * @return the created order as a response DTO
+     */
+    @Override
+    public Mono<OrderResponse> placeOrder(CreateOrderRequest request, String token) {
+        if (request.items() == null || request.items().isEmpty()) {
+            metrics.ordersRejected(Mode.SINGLE, 1);
+            return Mono.error(new IllegalArgumentException("Order must contain at least one item."));
+        }
+        Map<Long, Integer> quantityByProductId = OrderMapper.quantityByProductId(request.items());
+
+        return Mono.defer(() -> {
+            long lookupStart = System.nanoTime();
+
+            // 1) Fetch available stock and unit prices for all distinct products concurrently
+            return lookup(quantityByProductId.keySet(), token).flatMap(lookup -> {
+                long validateStart = metrics.recordStage(Mode.SINGLE, Stage.LOOKUP, lookupStart);
+
+                // 2) Validate available stock against the total quantity requested per product
+                int units = 0;
+                for (Map.Entry<Long, Integer> entry : quantityByProductId.entrySet()) {
+                    if (entry.getValue() > lookup.stockByProductId().getOrDefault(entry.getKey(), 0)) {
+                        metrics.ordersRejected(Mode.SINGLE, 1);
+                        return Mono.<OrderResponse>error(new IllegalArgumentException(
+                                "Insufficient stock for ProductId: " + entry.getKey()
+                        ));
+                    }
+                    units += entry.getValue();
+                }
+                long mapStart = metrics.recordStage(Mode.SINGLE, Stage.VALIDATE, validateStart);
+
+                // 3) Map to entity WITH prices, then save it together with its outbox entry (one atomic write)
+                Order order = mapper.toEntity(request, lookup.priceByProductId());
+                order.setOutbox(outboxDispatcher.newEntry());
+                long saveStart = metrics.recordStage(Mode.SINGLE, Stage.MAP, mapStart);
+
+                int totalUnits = units;
+                return repository.save(order).map(savedOrder -> {
+                    historyCache.invalidate(savedOrder.getCustomerId());
+                    statsStore.orderPlaced(savedOrder);
+                    long dispatchStart = metrics.recordStage(Mode.SINGLE, Stage.SAVE, saveStart);
+
+                    // 4) Decrease stock in the background; the outbox guarantees it happens eventually
+                    outboxDispatcher.dispatchAsync(List.of(savedOrder), token);
+                    metrics.recordStage(Mode.SINGLE, Stage.DISPATCH, dispatchStart);
+
+                    metrics.orderAccepted(Mode.SINGLE, request.items().size(), totalUnits);
+                    return mapper.toResponse(savedOrder);
+                });
+            });
+        });
+    }
+
+    @Override
+    public Mono<BatchOrderResponse> placeOrders(List<CreateOrderRequest> requests, String token) {
+        return Mono.fromCallable(() -> blockingService.placeOrders(requests, token))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<OrderResponse> updateOrderStatus(String orderId, Status newStatus) {
+        return repository.transitionStatus(orderId, newStatus)
+                .map(previous -> {
+                    statsStore.statusChanged(previous.getStatus(), newStatus);
+                    historyCache.invalidate(previous.getCustomerId());
+                    previous.setStatus(newStatus);
+                    return mapper.toResponse(previous);
+                })
+                // Not updated: find out why (only on the failure path)
+                .switchIfEmpty(Mono.defer(() -> repository.findById(orderId)
+                        .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(orderId)))
+                        .flatMap(order -> Mono.<OrderResponse>error(new InvalidStatusTransitionException(
+                                "Order " + orderId + " cannot move from " + order.getStatus() + " to " + newStatus
+                        )))));
+    }
+
+    @Override
+    public Mono<BulkStatusUpdateResponse> updateOrderStatuses(List<String> orderIds, Status newStatus) {
+        return Mono.fromCallable(() -> blockingService.updateOrderStatuses(orderIds, newStatus))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<OrderPageResponse<OrderResponse>> getOrdersByFilter(OrderFilterRequest filter, String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            int size = OrderServiceImpl.pageSize(limit, defaultPageSize, maxPageSize);
+            OrderRangeQuery.Cursor after = OrderServiceImpl.rangeCursor(cursor);
+
+            return repository.findRange(OrderServiceImpl.toRangeQuery(filter, after, size + 1, true))
+                    .collectList()
+                    .map(orders -> OrderServiceImpl.toRangePage(orders, size, mapper));
+        });
+    }
+
+    @Override
+    public Mono<OrderPageResponse<OrderResponse>> getCustomerOrders(String customerId, String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            int size = OrderServiceImpl.pageSize(limit, defaultPageSize, maxPageSize);
+            OrderRangeQuery.Cursor after = OrderServiceImpl.rangeCursor(cursor);
+
+            return historyCache.get(customerId, cursor, size,
+                    repository.findRange(OrderServiceImpl.customerRangeQuery(customerId, after, size + 1))
+                            .collectList()
+                            .map(orders -> OrderServiceImpl.toRangePage(orders, size, mapper)));
+        });
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Fetches stock (one bulk request) and the price of every product (through the price cache) concurrently.
+     *
+     * @param productIds the distinct product IDs of the order
+     * @param token      the Bearer token forwarded to the downstream services
+     * @return the joined lookups, or an {@link IllegalStateException} after {@code order.lookup.timeout-ms}
+     */
+    private Mono<LookupResult> lookup(Collection<Long> productIds, String token) {
+        Mono<Map<Long, Integer>> stock = inventoryClient.getStockQuantities(productIds, token);
+
+        // suppressCancel: a cancelled order must not cancel a price load other orders are waiting for
+        Mono<Map<Long, Double>> prices = Flux.fromIterable(productIds)
+                .flatMap(productId -> Mono.fromFuture(() -> priceCache.getUnitPriceAsync(productId,
+                                        id -> productClient.getUnitPrice(id, token).toFuture()), true)
+                        .map(price -> Map.entry(productId, price)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+
+        return Mono.zip(stock, prices, LookupResult::new)
+                .timeout(Duration.ofMillis(lookupTimeoutMs), Mono.error(() -> new IllegalStateException(
+                        "Stock and price lookups did not complete within " + lookupTimeoutMs + " ms"
+                )));
+    }
+
+    /**
+     * Fetches one keyset page of orders (newest first) as the given projection type and maps it to DTOs.
+     *
+     * @see OrderServiceImpl#getOrders(String, Integer)
+     */
+    private <T, R> Mono<OrderPageResponse<R>> fetchPage(
+            String cursor,
+            Integer limit,
+            Class<T> type,
+            Function<T, String> idOf,
+            Function<T, R> toDto
+    ) {
+        return Mono.defer(() -> {
+            int size = OrderServiceImpl.pageSize(limit, defaultPageSize, maxPageSize);
+            String after = OrderServiceImpl.idCursor(cursor);
+            PageRequest page = OrderServiceImpl.idPageRequest(size);
+
+            Flux<T> orders = after == null
+                    ? repository.findAllBy(page, type)
+                    : repository.findByIdLessThan(after, page, type);
+            return orders.collectList().map(list -> OrderServiceImpl.toIdPage(list, size, idOf, toDto));
+        });
+    }
+    //====================================================================
+}
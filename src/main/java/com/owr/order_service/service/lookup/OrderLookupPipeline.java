@@ -0,0 +1,244 @@
+package com.owr.order_service.service.lookup;
+
+
+import com.owr.order_service.service.client.InventoryClient;
+import com.owr.order_service.service.client.ProductPriceCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderLookupPipeline
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 9:25 AM
+ * Description: Runs the stock and price lookups of an order concurrently and joins the results.
+ =================================================================================*/
+
+/**
+ * Fans out the stock lookups ({@link InventoryClient}) and one price lookup ({@link ProductPriceCache}) per distinct
+ * product on the {@code orderLookupExecutor}, then waits for all of them under a single deadline.
+ * Stock is fetched with one bulk request when the inventory service supports it; if the bulk request answers that
+ * it is not available, the stock of every product is looked up with its own concurrent task, like the prices.
+ * *
+ * A cart of N products therefore costs roughly one downstream round-trip instead of 2N sequential ones.
+ * The first failing lookup fails the whole pipeline without waiting for the remaining calls.
+ * *
+ *  - When the pipeline fails or times out, the remaining lookups are cancelled through the executor's
+ *    {@link Future}s: queued ones never start and running ones are interrupted, so their threads and pooled
+ *    connections are released instead of being held until the socket timeout.
+ *  - When the executor's queue is full the lookup is rejected ({@code TaskRejectedException}); the request is
+ *    answered with 503 like any other overloaded downstream call.
+ */
+@Component
+public class OrderLookupPipeline {
+
+    private final InventoryClient inventoryClient;
+    private final ProductPriceCache priceCache;
+    private final AsyncTaskExecutor executor;
+
+    /**
+     * Overall deadline for all lookups of one order, in milliseconds.
+     */
+    private final long timeoutMs;
+
+    public OrderLookupPipeline(
+            InventoryClient inventoryClient,
+            ProductPriceCache priceCache,
+            @Qualifier("orderLookupExecutor") AsyncTaskExecutor executor,
+            @Value("${order.lookup.timeout-ms:3000}") long timeoutMs
+    ) {
+        this.inventoryClient = inventoryClient;
+        this.priceCache = priceCache;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Joined result of the lookups for one order.
+     *
+     * @param stockByProductId available stock per product ID
+     * @param priceByProductId unit price per product ID
+     */
+    public record LookupResult(
+            Map<Long, Integer> stockByProductId,
+            Map<Long, Double> priceByProductId
+    ) { }
+
+    /**
+     * Fetches available stock and unit price for every given product concurrently.
+     *
+     * @param productIds the distinct product IDs of the order
+     * @param token      the Bearer token forwarded to the downstream services
+     * @return the joined {@link LookupResult}
+     * @throws IllegalStateException if the lookups do not complete within the configured deadline
+     * @throws org.springframework.core.task.TaskRejectedException if the executor cannot accept more lookups
+     */
+    public LookupResult lookup(Collection<Long> productIds, String token) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<CompletableFuture<?>> all = new ArrayList<>();
+        List<Future<?>> tasks = new ArrayList<>();
+
+        CompletableFuture<Optional<Map<Long, Integer>>> bulkStock = null;
+        Map<Long, CompletableFuture<Integer>> stockFutures = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<Double>> priceFutures = new LinkedHashMap<>();
+        try {
+            // Stock: one bulk request when the inventory service supports it, otherwise one request per product
+            if (inventoryClient.isBulkEnabled()) {
+                bulkStock = submit(() -> inventoryClient.getStockQuantities(productIds, token), tasks);
+                all.add(bulkStock);
+            } else {
+                stockFutures = submitStockLookups(productIds, token, tasks);
+                all.addAll(stockFutures.values());
+            }
+
+            // Prices: one cached lookup per product
+            for (Long productId : productIds) {
+                priceFutures.put(productId, submit(() -> priceCache.getUnitPrice(productId, token), tasks));
+            }
+            all.addAll(priceFutures.values());
+        } catch (RuntimeException e) {
+            // Rejected by the executor: do not leave the already submitted lookups running for nothing
+            cancelAll(tasks);
+            throw e;
+        }
+
+        awaitAll(all, tasks, deadline);
+
+        Map<Long, Integer> stockByProductId;
+        Optional<Map<Long, Integer>> bulk = bulkStock != null ? bulkStock.join() : Optional.empty();
+        if (bulk.isPresent()) {
+            stockByProductId = bulk.get();
+        } else {
+            if (bulkStock != null) {
+                // The bulk endpoint is not available: per-product lookups in parallel, under the same deadline
+                stockFutures = submitStockLookups(productIds, token, tasks);
+                awaitAll(new ArrayList<>(stockFutures.values()), tasks, deadline);
+            }
+            stockByProductId = joinAll(stockFutures);
+        }
+        return new LookupResult(stockByProductId, joinAll(priceFutures));
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Submits one stock lookup per product; cancels the lookups already submitted if the executor rejects one.
+     */
+    private Map<Long, CompletableFuture<Integer>> submitStockLookups(
+            Collection<Long> productIds,
+            String token,
+            List<Future<?>> tasks
+    ) {
+        Map<Long, CompletableFuture<Integer>> stockFutures = new LinkedHashMap<>();
+        try {
+            for (Long productId : productIds) {
+                stockFutures.put(productId, submit(() -> inventoryClient.getStockQuantity(productId, token), tasks));
+            }
+        } catch (RuntimeException e) {
+            cancelAll(tasks);
+            throw e;
+        }
+        return stockFutures;
+    }
+
+    /**
+     * Runs a lookup on the executor and exposes its result as a {@link CompletableFuture}. The executor's own
+     * {@link Future} is added to {@code tasks}; only cancelling that one interrupts the running lookup.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> lookup, List<Future<?>> tasks) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        tasks.add(executor.submit(() -> {
+            try {
+                result.complete(lookup.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Waits until every future has completed, or until the first one fails, or until the deadline expires.
+     * Outstanding lookups are cancelled (and interrupted) whenever the wait ends abnormally.
+     *
+     * @param futures  the lookups to wait for
+     * @param tasks    the executor tasks behind {@code futures}
+     * @param deadline {@link System#nanoTime()} by which all lookups of the order must have completed
+     */
+    private void awaitAll(List<CompletableFuture<?>> futures, List<Future<?>> tasks, long deadline) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        // Fail fast: complete as soon as any lookup fails
+        futures.forEach(f -> f.whenComplete((value, ex) -> {
+            if (ex != null) {
+                done.completeExceptionally(ex);
+            }
+        }));
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .whenComplete((value, ex) -> done.complete(null));
+
+        try {
+            done.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancelAll(tasks);
+            throw new IllegalStateException(
+                    "Stock and price lookups did not complete within " + timeoutMs + " ms"
+            );
+        } catch (InterruptedException e) {
+            cancelAll(tasks);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for stock and price lookups");
+        } catch (ExecutionException e) {
+            cancelAll(tasks);
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Cancels lookups that have not finished yet: queued ones are never started, running ones are interrupted
+     * (which aborts waits for a pooled connection or a bulkhead permit; a blocked socket read ends at the latest
+     * at the client's response timeout).
+     */
+    private static void cancelAll(List<Future<?>> tasks) {
+        tasks.forEach(task -> task.cancel(true));
+    }
+
+    /**
+     * Collects the values of already completed futures, keeping the key order.
+     */
+    private static <T> Map<Long, T> joinAll(Map<Long, CompletableFuture<T>> futures) {
+        Map<Long, T> values = new LinkedHashMap<>();
+        futures.forEach((productId, future) -> values.put(productId, future.join()));
+        return values;
+    }
+
+    /**
+     * Re-throws the original exception of a failed lookup so callers see the same errors as for a direct call.
+     */
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException("Stock or price lookup failed", cause);
+    }
+    //====================================================================
+}
@@ -0,0 +1,248 @@
+package com.owr.order_service.service.metrics;
+
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderMetrics
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 12:40 PM
+ * Description: Micrometer meters for the order pipeline stages and the downstream calls.
+ =================================================================================*/
+
+/**
+ * All meters are registered once at startup and kept in enum maps, so recording on the hot path is a plain array
+ * lookup plus {@link System#nanoTime()}; no meter is looked up or created per request.
+ * *
+ *  - {@code order.place.stage}      timer per stage of placing orders, tagged {@code mode=single|batch},
+ *                                   {@code stage=lookup|validate|map|save|dispatch}
+ *  - {@code order.place.orders}     counter per outcome, tagged {@code mode}, {@code outcome=accepted|rejected}
+ *  - {@code order.cart.lines}       distribution of line items per order
+ *  - {@code order.cart.units}       distribution of units (summed quantities) per order
+ *  - {@code downstream.calls}       timer per HTTP call, tagged {@code client=inventory|product}, {@code operation},
+ *                                   {@code outcome=success|client_error|server_error|io_error|error}
+ * *
+ * Calls refused by an open circuit breaker or a full bulkhead never reach the HTTP layer and are therefore not
+ * counted here; see {@code resilience4j.circuitbreaker.calls{kind=not_permitted}}. Repository operations are timed
+ * by Spring Boot as {@code spring.data.repository.invocations} and {@code mongodb.driver.commands}.
+ * Percentile histograms are switched on per meter in application.properties
+ * ({@code management.metrics.distribution.percentiles-histogram.*}).
+ */
+@Component
+public class OrderMetrics {
+
+    /**
+     * Stages of {@code placeOrder} / {@code placeOrders}.
+     */
+    public enum Stage {
+        LOOKUP, VALIDATE, MAP, SAVE, DISPATCH
+    }
+
+    /**
+     * Whether a single order or a batch is being placed.
+     */
+    public enum Mode {
+        SINGLE, BATCH
+    }
+
+    /**
+     * The HTTP calls made to the downstream services.
+     */
+    public enum DownstreamCall {
+        INVENTORY_STOCK("inventory", "get_stock"),
+        INVENTORY_STOCK_BATCH("inventory", "get_stock_batch"),
+        INVENTORY_DECREASE("inventory", "decrease"),
+        INVENTORY_DECREASE_BATCH("inventory", "decrease_batch"),
+        PRODUCT_PRICE("product", "get_price");
+
+        private final String client;
+        private final String operation;
+
+        DownstreamCall(String client, String operation) {
+            this.client = client;
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * Result of a downstream call, derived from the exception it threw (if any).
+     */
+    enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR, IO_ERROR, ERROR;
+
+        static Outcome of(Throwable e) {
+            if (e == null) {
+                return SUCCESS;
+            }
+            if (e instanceof HttpClientErrorException) {
+                return CLIENT_ERROR;
+            }
+            if (e instanceof HttpServerErrorException) {
+                return SERVER_ERROR;
+            }
+            if (e instanceof WebClientResponseException response) {
+                return response.getStatusCode().is4xxClientError() ? CLIENT_ERROR : SERVER_ERROR;
+            }
+            if (e instanceof ResourceAccessException || e instanceof WebClientRequestException) {
+                return IO_ERROR;   // connect / read timeouts, refused connections, pool exhaustion
+            }
+            return ERROR;
+        }
+    }
+
+    private final Map<Mode, Map<Stage, Timer>> stageTimers = new EnumMap<>(Mode.class);
+    private final Map<Mode, Counter> accepted = new EnumMap<>(Mode.class);
+    private final Map<Mode, Counter> rejected = new EnumMap<>(Mode.class);
+    private final Map<DownstreamCall, Timer[]> downstreamTimers = new EnumMap<>(DownstreamCall.class);
+    private final DistributionSummary cartLines;
+    private final DistributionSummary cartUnits;
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+        for (Mode mode : Mode.values()) {
+            String modeTag = tag(mode);
+
+            Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+            for (Stage stage : Stage.values()) {
+                timers.put(stage, Timer.builder("order.place.stage")
+                        .description("Time spent in one stage of placing orders")
+                        .tags("mode", modeTag, "stage", tag(stage))
+                        .register(meterRegistry));
+            }
+            stageTimers.put(mode, timers);
+
+            accepted.put(mode, Counter.builder("order.place.orders")
+                    .description("Orders accepted or rejected while placing them")
+                    .tags("mode", modeTag, "outcome", "accepted")
+                    .register(meterRegistry));
+            rejected.put(mode, Counter.builder("order.place.orders")
+                    .description("Orders accepted or rejected while placing them")
+                    .tags("mode", modeTag, "outcome", "rejected")
+                    .register(meterRegistry));
+        }
+
+        for (DownstreamCall call : DownstreamCall.values()) {
+            Timer[] byOutcome = new Timer[Outcome.values().length];
+            for (Outcome outcome : Outcome.values()) {
+                byOutcome[outcome.ordinal()] = Timer.builder("downstream.calls")
+                        .description("HTTP calls to the inventory and product services")
+                        .tags("client", call.client, "operation", call.operation, "outcome", tag(outcome))
+                        .register(meterRegistry);
+            }
+            downstreamTimers.put(call, byOutcome);
+        }
+
+        this.cartLines = DistributionSummary.builder("order.cart.lines")
+                .description("Line items per placed order")
+                .baseUnit("items")
+                .register(meterRegistry);
+        this.cartUnits = DistributionSummary.builder("order.cart.units")
+                .description("Units (summed quantities) per placed order")
+                .baseUnit("items")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos} for a stage.
+     *
+     * @param mode       single order or batch
+     * @param stage      the finished stage
+     * @param startNanos {@link System#nanoTime()} taken when the stage started
+     * @return the current {@link System#nanoTime()}, to be used as the start of the next stage
+     */
+    public long recordStage(Mode mode, Stage stage, long startNanos) {
+        long now = System.nanoTime();
+        stageTimers.get(mode).get(stage).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Counts an accepted order and records its cart size.
+     *
+     * @param mode  single order or batch
+     * @param lines number of line items
+     * @param units summed quantities of all line items
+     */
+    public void orderAccepted(Mode mode, int lines, int units) {
+        accepted.get(mode).increment();
+        cartLines.record(lines);
+        cartUnits.record(units);
+    }
+
+    /**
+     * Counts orders rejected for insufficient stock or invalid content.
+     *
+     * @param mode  single order or batch
+     * @param count number of rejected orders
+     */
+    public void ordersRejected(Mode mode, int count) {
+        if (count > 0) {
+            rejected.get(mode).increment(count);
+        }
+    }
+
+    /**
+     * Runs one HTTP call to a downstream service and records its duration, tagged by outcome.
+     *
+     * @param call    which call is made
+     * @param request the call
+     * @return the result of the call
+     */
+    public <T> T timeDownstream(DownstreamCall call, Supplier<T> request) {
+        long start = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            return request.get();
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            recordDownstream(call, start, failure);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #timeDownstream(DownstreamCall, Supplier)}: times each subscription to
+     * {@code request} from subscribe to its result. Cancelled calls are not recorded.
+     *
+     * @param call    which call is made
+     * @param request the call, not yet subscribed
+     * @return the timed call
+     */
+    public <T> Mono<T> timeDownstream(DownstreamCall call, Mono<T> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request
+                    .doOnSuccess(value -> recordDownstream(call, start, null))
+                    .doOnError(e -> recordDownstream(call, start, e));
+        });
+    }
+
+    //=================== Helper Functions ===============================
+
+    private void recordDownstream(DownstreamCall call, long startNanos, Throwable failure) {
+        downstreamTimers.get(call)[Outcome.of(failure).ordinal()]
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+    //====================================================================
+}
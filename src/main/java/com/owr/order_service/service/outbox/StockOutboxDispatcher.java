@@ -0,0 +1,212 @@
+package com.owr.order_service.service.outbox;
+
+
+import com.owr.order_service.model.Order;
+import com.owr.order_service.model.OrderLineItem;
+import com.owr.order_service.model.StockOutbox;
+import com.owr.order_service.repository.OrderRepository;
+import com.owr.order_service.service.client.InventoryClient;
+import com.owr.order_service.service.history.CustomerOrderHistoryCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/*=================================================================================
+ * Project: order-service
+ * File: StockOutboxDispatcher
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 8:40 PM
+ * Description: Sends the pending stock decrements of stored orders to the inventory service.
+ =================================================================================*/
+
+/**
+ * Drains the {@link StockOutbox} entries embedded in the orders.
+ * *
+ *  - Right after an order is stored, its decrement is attempted once in the background with the customer's token
+ *    ({@link #dispatchAsync}); checkout does not wait for it.
+ *  - A scheduled job claims up to {@code order.outbox.batch-size} due entries at once and retries them with
+ *    {@code inventory.service.token}, backing off exponentially between attempts. This covers failed first
+ *    attempts, saturated executors and crashes. Without the token the drain is off (a warning is logged at startup)
+ *    and only the first attempts are made.
+ *  - Entries are claimed with a lease ({@link OrderRepository#claimOutbox}), so several instances can drain
+ *    concurrently without sending the same decrement twice in parallel. Every order is sent by its own task on
+ *    the outbox executor, and a task that only starts after its lease has expired leaves the entry to whoever
+ *    claims it next; a long batch therefore cannot outlast the lease of the orders at its end.
+ *  - Every product line carries the idempotency key {@code order-<orderId>:<productId>}, whichever inventory
+ *    endpoint sends it; a retry after a lost response is recognised by the inventory service and not applied twice.
+ *  - Insufficient stock is not retried; the entry is marked {@link StockOutbox.State#REJECTED}, which the order
+ *    API returns as {@code stockState}, so oversold orders can be found and followed up.
+ *  - An entry that exhausts {@code order.outbox.max-attempts} is marked {@link StockOutbox.State#FAILED}.
+ *  - Every state change drops the customer's cached order history on this instance, so {@code stockState} is
+ *    not served stale from {@link CustomerOrderHistoryCache}.
+ */
+@Slf4j
+@Component
+public class StockOutboxDispatcher {
+
+    private final OrderRepository repository;
+    private final InventoryClient inventoryClient;
+    private final Executor executor;
+    private final CustomerOrderHistoryCache historyCache;
+
+    /**
+     * Service-to-service Bearer token used for retries, when the customer's token may have expired.
+     */
+    private final String serviceToken;
+
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+
+    public StockOutboxDispatcher(
+            OrderRepository repository,
+            InventoryClient inventoryClient,
+            @Qualifier("stockOutboxExecutor") Executor executor,
+            CustomerOrderHistoryCache historyCache,
+            @Value("${inventory.service.token:}") String serviceToken,
+            @Value("${order.outbox.batch-size:100}") int batchSize,
+            @Value("${order.outbox.lease:30s}") Duration lease,
+            @Value("${order.outbox.initial-backoff:5s}") Duration initialBackoff,
+            @Value("${order.outbox.max-backoff:10m}") Duration maxBackoff,
+            @Value("${order.outbox.max-attempts:20}") int maxAttempts
+    ) {
+        this.repository = repository;
+        this.inventoryClient = inventoryClient;
+        this.executor = executor;
+        this.historyCache = historyCache;
+        this.serviceToken = serviceToken;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+
+        if (serviceToken.isBlank()) {
+            log.warn("inventory.service.token (INVENTORY_SERVICE_TOKEN) is not set: the stock outbox drain is off, "
+                    + "failed stock decrements are not retried");
+        }
+    }
+
+    /**
+     * Creates the outbox entry for a new order. The entry is already claimed (attempt 1) by the caller for the
+     * duration of the lease, so the scheduled drain only picks it up if the first attempt does not finish in time.
+     *
+     * @return a pending outbox entry to store with the order
+     */
+    public StockOutbox newEntry() {
+        return new StockOutbox(StockOutbox.State.PENDING, 1, LocalDateTime.now().plus(lease), null, null);
+    }
+
+    /**
+     * Makes the first decrement attempt for freshly stored orders in the background, one executor task per order.
+     * Orders the saturated executor does not accept are left to the scheduled drain.
+     *
+     * @param orders the stored orders, each carrying an entry from {@link #newEntry()}
+     * @param token  the customer's Bearer token
+     */
+    public void dispatchAsync(List<Order> orders, String token) {
+        submitAll(orders, token);
+    }
+
+    /**
+     * Claims up to {@code order.outbox.batch-size} due entries per run and hands them to the outbox executor;
+     * runs every {@code order.outbox.poll-interval}. Does nothing without {@code inventory.service.token}.
+     */
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval:5s}")
+    public void drain() {
+        if (serviceToken.isBlank()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        submitAll(repository.claimOutbox(now, now.plus(lease), batchSize), serviceToken);
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Submits one dispatch task per order; entries of rejected tasks stay claimed until their lease expires and are
+     * then picked up by the drain.
+     */
+    private void submitAll(List<Order> orders, String token) {
+        int rejected = 0;
+        for (Order order : orders) {
+            try {
+                executor.execute(() -> dispatch(order, token));
+            } catch (RejectedExecutionException e) {
+                rejected++;
+            }
+        }
+        if (rejected > 0) {
+            log.warn("Stock outbox executor saturated; {} order(s) left to the scheduled drain", rejected);
+        }
+    }
+
+    /**
+     * Sends the decrement of one claimed order and records the outcome on its outbox entry. Skipped if the lease
+     * expired while the task waited in the queue: the entry may already be claimed by another dispatcher.
+     */
+    private void dispatch(Order order, String token) {
+        int attempt = order.getOutbox().getAttempts();
+        if (LocalDateTime.now().isAfter(order.getOutbox().getNextAttemptAt())) {
+            log.debug("Lease of the stock decrement for order {} expired before it was sent; left to the drain",
+                    order.getId());
+            return;
+        }
+        try {
+            inventoryClient.reserveStock(quantities(order), token, "order-" + order.getId());
+            if (repository.completeOutbox(order.getId(), attempt)) {
+                historyCache.invalidate(order.getCustomerId());
+            }
+        } catch (IllegalArgumentException e) {
+            log.error("Stock decrement for order {} rejected, order is oversold: {}", order.getId(), e.getMessage());
+            repository.rejectOutbox(order.getId(), attempt, e.getMessage());
+            historyCache.invalidate(order.getCustomerId());
+        } catch (RuntimeException e) {
+            LocalDateTime retryAt = attempt >= maxAttempts ? null : LocalDateTime.now().plus(backoff(attempt));
+            if (retryAt == null) {
+                log.error("Stock decrement for order {} failed after {} attempts", order.getId(), attempt, e);
+            } else {
+                log.warn("Stock decrement for order {} failed (attempt {}), retrying at {}: {}",
+                        order.getId(), attempt, retryAt, e.toString());
+            }
+            repository.failOutboxAttempt(order.getId(), attempt, retryAt, e.toString());
+            if (retryAt == null) {
+                historyCache.invalidate(order.getCustomerId());
+            }
+        }
+    }
+
+    /**
+     * Total quantity per product of an order.
+     */
+    private static Map<Long, Integer> quantities(Order order) {
+        return order.getItems().stream()
+                .collect(Collectors.groupingBy(
+                        OrderLineItem::getProductId,
+                        LinkedHashMap::new,
+                        Collectors.summingInt(OrderLineItem::getQuantity)
+                ));
+    }
+
+    /**
+     * Exponential backoff: {@code initialBackoff * 2^(attempt - 1)}, capped at {@code maxBackoff}.
+     */
+    private Duration backoff(int attempt) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+    //====================================================================
+}
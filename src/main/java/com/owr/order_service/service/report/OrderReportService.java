@@ -0,0 +1,140 @@
+package com.owr.order_service.service.report;
+
+
+import com.owr.order_service.dto.request.OrderFilterRequest;
+import com.owr.order_service.dto.response.BasketSizeReport;
+import com.owr.order_service.dto.response.DailyRevenueReport;
+import com.owr.order_service.dto.response.ProductSalesReport;
+import com.owr.order_service.repository.OrderRangeQuery;
+import com.owr.order_service.repository.OrderReportRepository;
+import com.owr.order_service.repository.OrderReportRepository.Ranking;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderReportService
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 8:05 PM
+ * Description: Resolves report windows and limits, and runs the reports of {@link OrderReportRepository}.
+ =================================================================================*/
+
+/**
+ * A report window is a range of whole days plus the optional status and customer filters of
+ * {@code GET /api/orders}. Unlike the order listing, {@code dateTo} defaults to today and {@code dateFrom} to
+ * {@code order.report.default-days} days before it, so a report without parameters covers the recent past instead
+ * of all orders. A window spans at most {@code order.report.max-days} days, like the order statistics.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderReportService {
+
+    private final OrderReportRepository reportRepository;
+
+    /**
+     * Length of the window, in days, when the client gives no {@code dateFrom}.
+     */
+    @Value("${order.report.default-days:30}")
+    private int defaultDays;
+
+    /**
+     * Longest window, in days, a client can request; longer ones are rejected with 400.
+     */
+    @Value("${order.report.max-days:366}")
+    private int maxDays;
+
+    /**
+     * Number of products returned by the top products report when the client does not ask for a number.
+     */
+    @Value("${order.report.top-products.default-limit:10}")
+    private int defaultTopProducts;
+
+    /**
+     * Upper bound for the number of products requested by a client.
+     */
+    @Value("${order.report.top-products.max-limit:100}")
+    private int maxTopProducts;
+
+    /**
+     * Ranks the products of the orders in the window.
+     *
+     * @param filter  the window and filters
+     * @param ranking {@code units} or {@code revenue} (case-insensitive); {@code null} for units
+     * @param limit   the requested number of products; capped at {@code order.report.top-products.max-limit}
+     * @return the best selling products, best first
+     * @throws IllegalArgumentException if the ranking is unknown, {@code dateTo} is before {@code dateFrom} or the
+     *                                  window exceeds {@code order.report.max-days}
+     */
+    public List<ProductSalesReport> topProducts(OrderFilterRequest filter, String ranking, Integer limit) {
+        int size = limit == null || limit < 1 ? defaultTopProducts : Math.min(limit, maxTopProducts);
+        return reportRepository.topProducts(toWindow(filter), toRanking(ranking), size);
+    }
+
+    /**
+     * Sums the orders in the window per day.
+     *
+     * @param filter the window and filters
+     * @return orders, revenue and average order value per day with orders, oldest first
+     * @throws IllegalArgumentException if {@code dateTo} is before {@code dateFrom} or the window exceeds
+     *                                  {@code order.report.max-days}
+     */
+    public List<DailyRevenueReport> revenuePerDay(OrderFilterRequest filter) {
+        return reportRepository.revenuePerDay(toWindow(filter));
+    }
+
+    /**
+     * Computes basket size statistics of the orders in the window.
+     *
+     * @param filter the window and filters
+     * @return the basket size statistics
+     * @throws IllegalArgumentException if {@code dateTo} is before {@code dateFrom} or the window exceeds
+     *                                  {@code order.report.max-days}
+     */
+    public BasketSizeReport basketSize(OrderFilterRequest filter) {
+        return reportRepository.basketSize(toWindow(filter));
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Translates the client filters into the half-open {@code createdAt} interval
+     * {@code [dateFrom 00:00, dateTo + 1 day 00:00)} with the status and customer filters.
+     */
+    private OrderRangeQuery toWindow(OrderFilterRequest filter) {
+        LocalDate toDay = filter.dateTo() != null ? filter.dateTo() : LocalDate.now();
+        LocalDate fromDay = filter.dateFrom() != null ? filter.dateFrom() : toDay.minusDays(defaultDays - 1L);
+        if (toDay.isBefore(fromDay)) {
+            throw new IllegalArgumentException("dateTo must not be before dateFrom");
+        }
+        if (ChronoUnit.DAYS.between(fromDay, toDay) >= maxDays) {
+            throw new IllegalArgumentException("At most " + maxDays + " days can be reported at once");
+        }
+        return new OrderRangeQuery(
+                fromDay.atStartOfDay(),
+                toDay.plusDays(1).atStartOfDay(),   // exclusive upper bound
+                filter.status(),
+                filter.customerId(),
+                null,
+                0,
+                false
+        );
+    }
+
+    private static Ranking toRanking(String ranking) {
+        if (ranking == null || ranking.isBlank()) {
+            return Ranking.UNITS;
+        }
+        for (Ranking candidate : Ranking.values()) {
+            if (candidate.name().equalsIgnoreCase(ranking)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unknown ranking: " + ranking + " (expected units or revenue)");
+    }
+    //====================================================================
+}
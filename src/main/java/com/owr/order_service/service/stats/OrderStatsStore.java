@@ -0,0 +1,421 @@
+package com.owr.order_service.service.stats;
+
+
+import com.mongodb.bulk.BulkWriteError;
+import com.owr.order_service.dto.response.DailyOrderStats;
+import com.owr.order_service.dto.response.OrderStatsResponse;
+import com.owr.order_service.model.Order;
+import com.owr.order_service.model.OrderStats;
+import com.owr.order_service.model.Status;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderStatsStore
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 6:50 PM
+ * Description: Incrementally maintained order counts per status and orders/revenue per day.
+ =================================================================================*/
+
+/**
+ * Keeps the {@link OrderStats} buckets of the {@code order_stats} collection up to date, so reading the statistics
+ * costs one lookup of the totals plus one document per requested day, regardless of the number of orders.
+ * *
+ *  - Placing an order and every status transition only bump striped {@link LongAdder}s in memory; the request
+ *    path never writes the stats collection.
+ *  - Every {@code order.stats.flush-interval} the accumulated deltas are drained and applied with {@code $inc}
+ *    upserts in one unordered {@code bulkWrite}. Instances flush independently; increments are additive.
+ *    Deltas whose write fails are put back and retried with the next flush.
+ *  - Reads add this instance's unflushed deltas, so its own writes are visible at once; writes of other instances
+ *    show up after their next flush.
+ *  - {@link #rebuild()} recomputes all buckets from the orders with two aggregations. It runs at startup when the
+ *    collection is empty, on {@code order.stats.rebuild-cron} (off by default) and through
+ *    {@code POST /actuator/orderstats}. Its aggregations do not hold the flush lock; only the final replacement of
+ *    the buckets does. An order counted while the aggregations run may or may not be in their result, so the
+ *    buckets are only replaced if no change was counted by this instance and no other instance flushed one in the
+ *    meantime; otherwise the rebuild is retried up to {@code order.stats.rebuild-attempts} times and then fails
+ *    with an error instead of leaving the stats off by the racing changes.
+ * *
+ * Days are calendar days in the server time zone, like {@code createdAt}. Revenue is kept in cents.
+ */
+@Slf4j
+@Component
+public class OrderStatsStore {
+
+    /**
+     * Unflushed orders and revenue (cents) of one day.
+     */
+    private static final class DayDelta {
+        final LongAdder orders = new LongAdder();
+        final LongAdder revenueCents = new LongAdder();
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final int defaultDays;
+    private final int maxDays;
+    private final boolean rebuildIfMissing;
+    private final int rebuildAttempts;
+
+    /**
+     * Unflushed changes of the number of orders per status, indexed by {@link Status#ordinal()}.
+     */
+    private final LongAdder[] statusDeltas = new LongAdder[Status.values().length];
+
+    /**
+     * Unflushed orders and revenue (cents) of the totals bucket; kept apart from the days so either write can fail
+     * and be retried on its own.
+     */
+    private final LongAdder totalOrders = new LongAdder();
+    private final LongAdder totalRevenueCents = new LongAdder();
+
+    /**
+     * Unflushed orders and revenue per day; one small entry per day on which this instance placed orders.
+     */
+    private final ConcurrentMap<LocalDate, DayDelta> dayDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * Number of changes counted by this instance since it started; never reset, so a rebuild can tell whether
+     * changes were counted while its aggregations ran.
+     */
+    private final LongAdder changes = new LongAdder();
+
+    /**
+     * Serialises rebuilds of this instance; {@link #flush()} synchronises on the store itself.
+     */
+    private final Object rebuildLock = new Object();
+
+    public OrderStatsStore(
+            MongoTemplate mongoTemplate,
+            @Value("${order.stats.default-days:30}") int defaultDays,
+            @Value("${order.stats.max-days:366}") int maxDays,
+            @Value("${order.stats.rebuild-if-missing:true}") boolean rebuildIfMissing,
+            @Value("${order.stats.rebuild-attempts:3}") int rebuildAttempts
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.defaultDays = defaultDays;
+        this.maxDays = maxDays;
+        this.rebuildIfMissing = rebuildIfMissing;
+        this.rebuildAttempts = rebuildAttempts;
+        for (int i = 0; i < statusDeltas.length; i++) {
+            statusDeltas[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Counts a stored order: one more order in its status, and its total price on the day it was placed.
+     *
+     * @param order the stored order
+     */
+    public void orderPlaced(Order order) {
+        long cents = Math.round(order.getTotalPrice() * 100);
+        statusDeltas[order.getStatus().ordinal()].increment();
+        totalOrders.increment();
+        totalRevenueCents.add(cents);
+
+        LocalDate day = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now(zone);
+        DayDelta delta = dayDeltas.computeIfAbsent(day, d -> new DayDelta());
+        delta.orders.increment();
+        delta.revenueCents.add(cents);
+        changes.increment();
+    }
+
+    /**
+     * Moves one order from one status count to another.
+     *
+     * @param from the status before the transition
+     * @param to   the status after the transition
+     */
+    public void statusChanged(Status from, Status to) {
+        statusDeltas[from.ordinal()].decrement();
+        statusDeltas[to.ordinal()].increment();
+        changes.increment();
+    }
+
+    /**
+     * Reads the statistics: totals, current orders per status and orders/revenue per day.
+     *
+     * @param from first day (inclusive); defaults to {@code order.stats.default-days} days before {@code to}
+     * @param to   last day (inclusive); defaults to today
+     * @return the statistics
+     * @throws IllegalArgumentException if {@code to} is before {@code from} or the range exceeds
+     *                                  {@code order.stats.max-days}
+     */
+    public OrderStatsResponse read(LocalDate from, LocalDate to) {
+        LocalDate last = to != null ? to : LocalDate.now(zone);
+        LocalDate first = from != null ? from : last.minusDays(defaultDays - 1L);
+        if (last.isBefore(first)) {
+            throw new IllegalArgumentException("dateTo must not be before dateFrom");
+        }
+        if (ChronoUnit.DAYS.between(first, last) >= maxDays) {
+            throw new IllegalArgumentException("At most " + maxDays + " days can be requested at once");
+        }
+
+        // 1) Stored buckets: the totals and one document per day with orders
+        OrderStats total = mongoTemplate.findById(OrderStats.TOTAL_ID, OrderStats.class);
+        List<OrderStats> storedDays = mongoTemplate.find(
+                new Query(Criteria.where("_id").gte(first.toString()).lte(last.toString()))
+                        .with(Sort.by(Sort.Direction.ASC, "_id")),
+                OrderStats.class
+        );
+
+        // 2) Add the deltas this instance has not flushed yet
+        Map<Status, Long> ordersByStatus = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            Long stored = total != null && total.getStatusCounts() != null
+                    ? total.getStatusCounts().get(status.name())
+                    : null;
+            ordersByStatus.put(status, (stored != null ? stored : 0L) + statusDeltas[status.ordinal()].sum());
+        }
+
+        long orders = (total != null ? total.getOrders() : 0) + totalOrders.sum();
+        long revenueCents = (total != null ? total.getRevenueCents() : 0) + totalRevenueCents.sum();
+        Map<LocalDate, long[]> byDay = new TreeMap<>();
+        storedDays.forEach(stats -> byDay.put(
+                LocalDate.parse(stats.getId()), new long[]{stats.getOrders(), stats.getRevenueCents()}
+        ));
+        for (Map.Entry<LocalDate, DayDelta> entry : dayDeltas.entrySet()) {
+            LocalDate day = entry.getKey();
+            long dayOrders = entry.getValue().orders.sum();
+            long dayCents = entry.getValue().revenueCents.sum();
+            if ((dayOrders != 0 || dayCents != 0) && !day.isBefore(first) && !day.isAfter(last)) {
+                long[] sums = byDay.computeIfAbsent(day, d -> new long[2]);
+                sums[0] += dayOrders;
+                sums[1] += dayCents;
+            }
+        }
+
+        List<DailyOrderStats> days = new ArrayList<>();
+        byDay.forEach((day, sums) -> days.add(new DailyOrderStats(day, sums[0], sums[1] / 100.0)));
+        return new OrderStatsResponse(orders, revenueCents / 100.0, ordersByStatus, days);
+    }
+
+    /**
+     * Applies the accumulated deltas to the stored buckets; runs every {@code order.stats.flush-interval}.
+     */
+    @Scheduled(fixedDelayString = "${order.stats.flush-interval:1s}")
+    public synchronized void flush() {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderStats.class);
+        // Per bulk operation: puts its deltas back if it fails
+        List<Runnable> restores = new ArrayList<>();
+
+        for (Map.Entry<LocalDate, DayDelta> entry : dayDeltas.entrySet()) {
+            DayDelta delta = entry.getValue();
+            long dayOrders = delta.orders.sumThenReset();
+            long dayCents = delta.revenueCents.sumThenReset();
+            if (dayOrders == 0 && dayCents == 0) {
+                continue;
+            }
+            bulk.upsert(byId(entry.getKey().toString()),
+                    new Update().inc("orders", dayOrders).inc("revenueCents", dayCents));
+            restores.add(() -> {
+                delta.orders.add(dayOrders);
+                delta.revenueCents.add(dayCents);
+            });
+        }
+
+        Update totals = new Update();
+        long[] statusChanges = new long[statusDeltas.length];
+        for (Status status : Status.values()) {
+            long change = statusDeltas[status.ordinal()].sumThenReset();
+            statusChanges[status.ordinal()] = change;
+            if (change != 0) {
+                totals.inc("statusCounts." + status.name(), change);
+            }
+        }
+        long orders = totalOrders.sumThenReset();
+        long revenueCents = totalRevenueCents.sumThenReset();
+        if (orders != 0 || revenueCents != 0) {
+            totals.inc("orders", orders).inc("revenueCents", revenueCents);
+        }
+        if (!totals.getUpdateObject().isEmpty()) {
+            bulk.upsert(byId(OrderStats.TOTAL_ID), totals);
+            restores.add(() -> {
+                for (int i = 0; i < statusChanges.length; i++) {
+                    statusDeltas[i].add(statusChanges[i]);
+                }
+                totalOrders.add(orders);
+                totalRevenueCents.add(revenueCents);
+            });
+        }
+
+        if (restores.isEmpty()) {
+            return;
+        }
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().stream().map(BulkWriteError::getIndex).forEach(index -> restores.get(index).run());
+            log.warn("Order stats flush partially failed ({} of {} buckets); retrying with the next flush",
+                    e.getErrors().size(), restores.size());
+        } catch (DataAccessException e) {
+            restores.forEach(Runnable::run);
+            log.warn("Order stats flush failed; retrying with the next flush: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes all buckets from the orders and replaces the stored ones.
+     * Runs on {@code order.stats.rebuild-cron} (disabled with {@code -}).
+     *
+     * @throws IllegalStateException if orders changed during each of the {@code order.stats.rebuild-attempts}
+     *                               attempts; the stored buckets are left as they were
+     */
+    @Scheduled(cron = "${order.stats.rebuild-cron:-}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            for (int attempt = 1; attempt <= rebuildAttempts; attempt++) {
+                if (rebuildBuckets()) {
+                    return;
+                }
+                log.info("Orders changed during order stats rebuild attempt {} of {}", attempt, rebuildAttempts);
+            }
+        }
+        throw new IllegalStateException("Orders changed during every rebuild attempt; the order stats were not "
+                + "rebuilt, try again when fewer orders are placed");
+    }
+
+    /**
+     * Builds the stats collection from the orders on the first start (or after it was dropped).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        if (rebuildIfMissing && !mongoTemplate.exists(byId(OrderStats.TOTAL_ID), OrderStats.class)) {
+            try {
+                rebuild();
+            } catch (IllegalStateException e) {
+                log.warn("Order stats not built at startup, rebuild with POST /actuator/orderstats: {}",
+                        e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining deltas before the application stops.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Runs the aggregations without holding the flush lock, so a long rebuild does not stall the flushes of the
+     * request path; only the final replacement of the buckets waits for a running flush.
+     *
+     * @return whether the buckets were replaced; {@code false} if this instance counted a change or the stored
+     * totals moved (a flush of another instance) while the aggregations ran
+     */
+    private boolean rebuildBuckets() {
+        long start = System.nanoTime();
+        long changesBefore;
+        Document totalBefore;
+        synchronized (this) {
+            flush();
+            changesBefore = changes.sum();
+            totalBefore = storedTotal();
+        }
+
+        // 1) Current number of orders per status
+        Map<String, Long> statusCounts = new HashMap<>();
+        Aggregation byStatus = Aggregation.newAggregation(
+                Aggregation.group("status").count().as("count")
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        mongoTemplate.aggregate(byStatus, Order.class, Document.class).forEach(doc -> {
+            if (doc.get("_id") != null) {
+                statusCounts.put(doc.get("_id").toString(), ((Number) doc.get("count")).longValue());
+            }
+        });
+
+        // 2) Orders and revenue (rounded to cents per order, like orderPlaced) per day in the server time zone
+        Aggregation byDay = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("createdAt").ne(null)),
+                Aggregation.project()
+                        .and(DateOperators.DateToString.dateOf("createdAt")
+                                .toString("%Y-%m-%d")
+                                .withTimezone(DateOperators.Timezone.valueOf(zone.getId())))
+                        .as("day")
+                        .and(ArithmeticOperators.Round.roundValueOf(
+                                ArithmeticOperators.Multiply.valueOf("totalPrice").multiplyBy(100)))
+                        .as("cents"),
+                Aggregation.group("day").count().as("orders").sum("cents").as("revenueCents")
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        List<OrderStats> buckets = new ArrayList<>();
+        long orders = 0;
+        long revenueCents = 0;
+        for (Document doc : mongoTemplate.aggregate(byDay, Order.class, Document.class)) {
+            long dayOrders = ((Number) doc.get("orders")).longValue();
+            long dayCents = Math.round(((Number) doc.get("revenueCents")).doubleValue());
+            buckets.add(new OrderStats(doc.getString("_id"), dayOrders, dayCents, null));
+            orders += dayOrders;
+            revenueCents += dayCents;
+        }
+        buckets.add(new OrderStats(OrderStats.TOTAL_ID, orders, revenueCents, statusCounts));
+
+        // 3) Replace the stored buckets; upserts keep rebuilds of other instances from failing on duplicate IDs.
+        //    Only this write holds the flush lock, so flushes wait for it but not for the aggregations.
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, OrderStats.class);
+        bulk.remove(new Query());
+        buckets.forEach(bucket -> bulk.replaceOne(byId(bucket.getId()), bucket, FindAndReplaceOptions.options().upsert()));
+        synchronized (this) {
+            // Any change counted since the first flush may or may not be in the aggregations: leave the buckets
+            if (changes.sum() != changesBefore || !Objects.equals(storedTotal(), totalBefore)) {
+                return false;
+            }
+            bulk.execute();
+        }
+
+        log.info("Rebuilt order stats from {} orders ({} days) in {} ms",
+                orders, buckets.size() - 1, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * The stored totals bucket as written, or {@code null}; every flush with a change moves it.
+     */
+    private Document storedTotal() {
+        return mongoTemplate.findById(OrderStats.TOTAL_ID, Document.class,
+                mongoTemplate.getCollectionName(OrderStats.class));
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+    //====================================================================
+}
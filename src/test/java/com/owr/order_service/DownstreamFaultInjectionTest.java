@@ -0,0 +1,152 @@
+package com.owr.order_service;
+
+
+import com.owr.order_service.loadtest.StubDownstreamServer;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/*=================================================================================
+ * Project: order-service
+ * File: DownstreamFaultInjectionTest
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:55 PM
+ * Description: Injects inventory/product failures through the load test stubs and checks the circuit breaker cycle.
+ =================================================================================*/
+
+/**
+ * Runs the whole service (embedded mongod, {@link StubDownstreamServer}, real JWTs) with a small circuit breaker
+ * window, then:
+ *  1. places an order while the stubs are healthy,
+ *  2. makes every downstream call fail until the {@code inventory} circuit opens and placements are answered with
+ *     503 and {@code Retry-After} without reaching the stubs,
+ *  3. heals the stubs and waits until placements succeed again and the circuit has closed.
+ */
+class DownstreamFaultInjectionTest {
+
+    private static final String INVENTORY = "inventory";
+    private static final Duration WAIT_IN_OPEN_STATE = Duration.ofSeconds(1);
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static StubDownstreamServer stubs;
+    private static ConfigurableApplicationContext app;
+    private static URI baseUri;
+    private static String token;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    /**
+     * Every order uses a new product, so the product price cache never hides a failing product service.
+     */
+    private final AtomicLong nextProductId = new AtomicLong(1);
+
+    @BeforeAll
+    static void startService() throws IOException {
+        mongod = Mongod.instance().start(Version.Main.V7_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        stubs = new StubDownstreamServer(Duration.ZERO, Duration.ZERO, 0, 1_000_000);
+        token = stubs.getJwtIssuer().issue("fault-injection", Duration.ofHours(1));
+
+        app = SpringApplication.run(OrderServiceApplication.class,
+                "--server.port=0",
+                "--spring.data.mongodb.uri=mongodb://" + address.getHost() + ":" + address.getPort() + "/orders-faults",
+                "--inventory.service.url=" + stubs.baseUrl() + "/inventory",
+                "--product.service.url=" + stubs.baseUrl() + "/products",
+                "--inventory.service.token=" + token,
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + stubs.getJwtIssuer().getIssuer(),
+                "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + stubs.baseUrl() + "/jwks",
+                "--resilience4j.circuitbreaker.configs.default.sliding-window-size=10",
+                "--resilience4j.circuitbreaker.configs.default.minimum-number-of-calls=5",
+                "--resilience4j.circuitbreaker.configs.default.permitted-number-of-calls-in-half-open-state=2",
+                "--resilience4j.circuitbreaker.configs.default.wait-duration-in-open-state="
+                        + WAIT_IN_OPEN_STATE.toMillis() + "ms",
+                "--resilience.retry-after-seconds=7"
+        );
+        baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort());
+    }
+
+    @AfterAll
+    static void stopService() {
+        if (app != null) {
+            app.close();
+        }
+        if (stubs != null) {
+            stubs.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void circuitOpensOnDownstreamFailuresAndClosesAfterRecovery() throws Exception {
+        // 1) Healthy
+        assertEquals(200, placeOrder().statusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, inventoryCircuit());
+
+        // 2) Every inventory and product call fails: the circuit must open and placements fail fast
+        stubs.setErrorRate(1.0);
+        HttpResponse<String> rejected = null;
+        for (int i = 0; i < 50 && rejected == null; i++) {
+            HttpResponse<String> response = placeOrder();
+            if (response.statusCode() == 503 && inventoryCircuit() == CircuitBreaker.State.OPEN) {
+                rejected = response;
+            }
+        }
+        assertNotNull(rejected, "Circuit did not open within 50 failing placements");
+        assertEquals("7", rejected.headers().firstValue("Retry-After").orElse(null));
+
+        // 3) Downstream recovers: after the open period the half-open probes succeed and the circuit closes
+        stubs.setErrorRate(0);
+        Thread.sleep(WAIT_IN_OPEN_STATE.toMillis());
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (placeOrder().statusCode() == 200 && inventoryCircuit() == CircuitBreaker.State.CLOSED) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("Circuit did not close after the downstream services recovered; state " + inventoryCircuit());
+    }
+
+    //=================== Helper Functions ===============================
+
+    private HttpResponse<String> placeOrder() throws IOException, InterruptedException {
+        String body = "{\"customerId\":\"customer-1\",\"items\":[{\"productId\":"
+                + nextProductId.getAndIncrement() + ",\"quantity\":1}]}";
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/orders"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static CircuitBreaker.State inventoryCircuit() {
+        return app.getBean(CircuitBreakerRegistry.class).circuitBreaker(INVENTORY).getState();
+    }
+    //====================================================================
+}
@@ -0,0 +1,204 @@
+package com.owr.order_service.repository;
+
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.owr.order_service.config.OrderIndexInitializer;
+import com.owr.order_service.model.Order;
+import com.owr.order_service.model.OrderLineItem;
+import com.owr.order_service.model.Status;
+import com.owr.order_service.model.StockOutbox;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*=================================================================================
+ * Project: order-service
+ * File: OrderQueryPlanTest
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 3:55 PM
+ * Description: Asserts that the order queries are answered from the managed indexes (IXSCAN, no COLLSCAN).
+ =================================================================================*/
+
+/**
+ * Runs against an embedded mongod (downloaded on first use, no container needed). The indexes are created by
+ * {@link OrderIndexInitializer} exactly as at application startup; every query is explained as the repository sends
+ * it and its winning plan must scan the expected index without a blocking in-memory sort.
+ */
+class OrderQueryPlanTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 8, 1, 0, 0);
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V7_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        client = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "orders-plan-test");
+
+        initializer().run(null);
+
+        mongoTemplate.insertAll(orders(500));
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        client.close();
+        mongod.close();
+    }
+
+    //=================== Derived queries of OrderRepository ===============
+
+    @Test
+    void findByCustomerIdUsesCustomerIndex() {
+        assertIndexScan(new Query(Criteria.where("customerId").is("customer-3")), "customerId_createdAt_id");
+    }
+
+    @Test
+    void findByStatusUsesStatusIndex() {
+        assertIndexScan(new Query(Criteria.where("status").is(Status.SHIPPED)), "status_createdAt_id");
+    }
+
+    @Test
+    void findByCreatedAtBetweenUsesCreatedAtIndex() {
+        assertIndexScan(new Query(Criteria.where("createdAt").gt(START.plusDays(2)).lt(START.plusDays(5))),
+                "createdAt_id");
+    }
+
+    //=================== Range queries (pages, export, history) ===========
+
+    @Test
+    void unfilteredNewestFirstPageUsesCreatedAtIndex() {
+        assertIndexScan(OrderRepositoryCustomImpl.toQuery(
+                new OrderRangeQuery(null, null, null, null, null, 50, true)), "createdAt_id");
+    }
+
+    @Test
+    void customerHistoryPageUsesCustomerIndex() {
+        OrderRangeQuery.Cursor after = new OrderRangeQuery.Cursor(START.plusDays(3), "66b4c9e2f1a2b34c5d6e7f80");
+        assertIndexScan(OrderRepositoryCustomImpl.toQuery(
+                new OrderRangeQuery(null, null, null, "customer-3", after, 20, true)), "customerId_createdAt_id");
+    }
+
+    @Test
+    void statusAndDateFilterUsesStatusIndex() {
+        assertIndexScan(OrderRepositoryCustomImpl.toQuery(
+                        new OrderRangeQuery(START, START.plusDays(7), Status.PENDING, null, null, 50, true)),
+                "status_createdAt_id");
+    }
+
+    @Test
+    void filteredExportUsesStatusIndex() {
+        assertIndexScan(OrderRepositoryCustomImpl.toQuery(
+                        new OrderRangeQuery(START, START.plusDays(7), Status.PENDING, null, null, 0, false)),
+                "status_createdAt_id");
+    }
+
+    @Test
+    void dueOutboxEntriesUsePartialOutboxIndex() {
+        assertIndexScan(OrderRepositoryCustomImpl.dueOutboxQuery(START.plusDays(30)), "outbox_pending");
+    }
+
+    //=================== Index maintenance ================================
+
+    @Test
+    void supersededIndexesAreDropped() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Order.class);
+        indexOps.createIndex(new Index().on("customerId", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC)
+                .named("customerId_createdAt"));
+        indexOps.createIndex(new Index().on("createdAt", Sort.Direction.ASC).named("createdAt"));
+
+        initializer().run(null);
+
+        List<String> names = indexOps.getIndexInfo().stream().map(IndexInfo::getName).toList();
+        assertFalse(names.contains("customerId_createdAt"), "Superseded index kept: " + names);
+        assertFalse(names.contains("createdAt"), "Superseded index kept: " + names);
+        assertTrue(names.contains("customerId_createdAt_id"), "Declared index missing: " + names);
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * The initializer as configured at application startup, failing on a missing index.
+     */
+    private static OrderIndexInitializer initializer() {
+        OrderIndexInitializer initializer = new OrderIndexInitializer(mongoTemplate);
+        ReflectionTestUtils.setField(initializer, "createOnStartup", true);
+        ReflectionTestUtils.setField(initializer, "failOnMissing", true);
+        return initializer;
+    }
+
+    /**
+     * Explains the query as the driver would run it and checks the winning plan.
+     */
+    private static void assertIndexScan(Query query, String indexName) {
+        MongoPersistentEntity<?> entity =
+                mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Order.class);
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+
+        FindIterable<Document> find = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Order.class))
+                .find(mapper.getMappedObject(query.getQueryObject(), entity))
+                .sort(mapper.getMappedSort(query.getSortObject(), entity));
+        if (query.getLimit() > 0) {
+            find.limit(query.getLimit());
+        }
+
+        Document explain = find.explain(ExplainVerbosity.QUERY_PLANNER);
+        String plan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+        assertTrue(plan.contains("\"IXSCAN\""), () -> "Expected an index scan, got " + plan);
+        assertTrue(plan.contains("\"" + indexName + "\""), () -> "Expected index " + indexName + ", got " + plan);
+        assertFalse(plan.contains("\"COLLSCAN\""), "Query scans the collection: " + plan);
+        assertFalse(plan.contains("\"SORT\""), "Query sorts in memory: " + plan);
+    }
+
+    /**
+     * Orders spread over 10 customers, all statuses and 20 days; every tenth one with a pending outbox entry.
+     */
+    private static List<Order> orders(int count) {
+        Status[] statuses = Status.values();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(List.of(new OrderLineItem(1L + i % 50, 1 + i % 3, 9.99)));
+            order.setCustomerId("customer-" + i % 10);
+            order.setStatus(statuses[i % statuses.length]);
+            order.setTotalPrice(9.99 * (1 + i % 3));
+            order.setCreatedAt(START.plusMinutes(i * 60L));
+            if (i % 10 == 0) {
+                order.setOutbox(new StockOutbox(StockOutbox.State.PENDING, 1, START.plusMinutes(i * 60L), null, null));
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+    //====================================================================
+}
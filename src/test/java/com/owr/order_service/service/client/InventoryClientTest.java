@@ -0,0 +1,224 @@
+package com.owr.order_service.service.client;
+
+
+import com.owr.order_service.service.metrics.OrderMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*=================================================================================
+ * Project: order-service
+ * File: InventoryClientTest
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:20 AM
+ * Description: Round-trips of InventoryClient's bulk mode and its fallbacks, against a local stub server.
+ =================================================================================*/
+class InventoryClientTest {
+
+    private static final String TOKEN = "token";
+    private static final List<Long> CART = List.of(1L, 2L, 3L);
+    private static final Pattern LINE_KEY = Pattern.compile("\"idempotencyKey\":\"([^\"]+)\"");
+
+    private HttpServer server;
+    private InventoryClient client;
+
+    /**
+     * Requests received by the stub, as {@code "<method> <path>"}.
+     */
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    /**
+     * Idempotency keys received by the stub: the header of single decrements, the line keys of bulk decrements.
+     */
+    private final List<String> keys = new CopyOnWriteArrayList<>();
+
+    /**
+     * Status the stub answers to the bulk endpoints; 200 means "supported".
+     */
+    private volatile int bulkStatus = 200;
+
+    /**
+     * Status the stub answers to {@code POST /decrease}.
+     */
+    private volatile int deltaStatus = 200;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/inventory", this::handle);
+        server.start();
+
+        client = new InventoryClient(new RestTemplate(), new OrderMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(client, "inventoryServiceUrl",
+                "http://localhost:" + server.getAddress().getPort() + "/inventory");
+        ReflectionTestUtils.setField(client, "bulkEnabled", true);
+        ReflectionTestUtils.setField(client, "unsupportedRecheck", Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void stockOfWholeCartIsFetchedInOneRoundTrip() {
+        Optional<Map<Long, Integer>> stock = client.getStockQuantities(CART, TOKEN);
+
+        assertEquals(Optional.of(Map.of(1L, 10, 2L, 20, 3L, 30)), stock);
+        assertEquals(List.of("GET /inventory/batch"), requests);
+    }
+
+    @Test
+    void bulkLookupIsOffByDefault() {
+        ReflectionTestUtils.setField(client, "bulkEnabled", false);
+
+        assertEquals(Optional.empty(), client.getStockQuantities(CART, TOKEN));
+        assertEquals(List.of(), requests);
+    }
+
+    @Test
+    void wholeCartIsReservedInOneRoundTrip() {
+        client.reserveStock(quantities(), TOKEN, "order-42");
+
+        assertEquals(List.of("POST /inventory/batch/decrease"), requests);
+    }
+
+    @Test
+    void notImplementedHandsBackToPerProductLookupsAndSkipsBulkAfterwards() {
+        bulkStatus = 501;
+
+        assertEquals(Optional.empty(), client.getStockQuantities(CART, TOKEN));
+        assertEquals(List.of("GET /inventory/batch"), requests);
+        assertFalse(client.isBulkEnabled());
+
+        requests.clear();
+        assertEquals(Optional.empty(), client.getStockQuantities(CART, TOKEN));
+        assertEquals(List.of(), requests);
+    }
+
+    @Test
+    void badRequestFromPerProductRouteMarksBulkUnsupported() {
+        // An inventory service without /batch maps it to /{productId} and rejects "batch" as a product ID
+        bulkStatus = 400;
+
+        assertEquals(Optional.empty(), client.getStockQuantities(CART, TOKEN));
+        assertFalse(client.isBulkEnabled());
+    }
+
+    @Test
+    void notFoundFallsBackForThatCallOnly() {
+        bulkStatus = 404;
+
+        assertEquals(Optional.empty(), client.getStockQuantities(CART, TOKEN));
+        assertTrue(client.isBulkEnabled());
+
+        bulkStatus = 200;
+        requests.clear();
+        client.getStockQuantities(CART, TOKEN);
+        assertEquals(List.of("GET /inventory/batch"), requests);
+    }
+
+    @Test
+    void bulkAndPerProductReservationsUseTheSameKeys() {
+        client.reserveStock(quantities(), TOKEN, "order-42");
+        List<String> bulkKeys = List.copyOf(keys);
+
+        keys.clear();
+        bulkStatus = 501;
+        client.reserveStock(quantities(), TOKEN, "order-42");
+
+        assertEquals(List.of("order-42:1", "order-42:2", "order-42:3"), bulkKeys);
+        assertEquals(bulkKeys, keys);
+    }
+
+    @Test
+    void missingDeltaEndpointFailsInsteadOfWritingAbsoluteStock() {
+        deltaStatus = 501;
+
+        assertThrows(IllegalStateException.class, () -> client.decreaseStock(1L, 1, TOKEN, "order-42:1"));
+        assertEquals(List.of("POST /inventory/decrease"), requests);
+    }
+
+    //=================== Helper Functions ===============================
+
+    private static Map<Long, Integer> quantities() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        CART.forEach(productId -> quantities.put(productId, 1));
+        return quantities;
+    }
+
+    /**
+     * Stock of product N is 10 * N.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.add(exchange.getRequestMethod() + " " + path);
+        recordKeys(exchange, path);
+
+        if (path.startsWith("/inventory/batch")) {
+            if (bulkStatus != 200) {
+                respond(exchange, bulkStatus, "");
+            } else if (path.equals("/inventory/batch")) {
+                respond(exchange, 200, "[{\"productId\":1,\"quantity\":10,\"price\":0},"
+                        + "{\"productId\":2,\"quantity\":20,\"price\":0},"
+                        + "{\"productId\":3,\"quantity\":30,\"price\":0}]");
+            } else {
+                respond(exchange, 200, "");
+            }
+        } else if (path.equals("/inventory/decrease")) {
+            respond(exchange, deltaStatus, "");
+        } else if (path.matches("/inventory/\\d+")) {
+            respond(exchange, 200, Integer.toString(10 * Integer.parseInt(path.substring("/inventory/".length()))));
+        } else {
+            respond(exchange, 200, "");
+        }
+    }
+
+    private void recordKeys(HttpExchange exchange, String path) throws IOException {
+        if (path.equals("/inventory/decrease")) {
+            keys.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+        } else if (path.equals("/inventory/batch/decrease") && bulkStatus == 200) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            Matcher matcher = LINE_KEY.matcher(body);
+            while (matcher.find()) {
+                keys.add(matcher.group(1));
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+    //====================================================================
+}
@@ -0,0 +1,114 @@
+package com.owr.order_service.service.client;
+
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*=================================================================================
+ * Project: order-service
+ * File: ProductPriceCacheTest
+ * Created by: Ochwada
+ * Created on: 10, 10/18/2026, 10:30 AM
+ * Description: Coalesced price loads when the loading caller is cancelled.
+ =================================================================================*/
+class ProductPriceCacheTest {
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final double PRICE = 9.99;
+
+    private final ExecutorService orders = Executors.newFixedThreadPool(2);
+
+    /**
+     * Number of calls that reached the product service.
+     */
+    private final AtomicInteger calls = new AtomicInteger();
+
+    /**
+     * Number of calls the product service still fails, like an unavailable service.
+     */
+    private final AtomicInteger failures = new AtomicInteger();
+
+    /**
+     * Whether the first call hangs until it is interrupted; counted down once it does.
+     */
+    private volatile boolean hangFirstCall;
+    private final CountDownLatch firstCallStarted = new CountDownLatch(1);
+
+    @AfterEach
+    void stopOrders() {
+        orders.shutdownNow();
+    }
+
+    @Test
+    void cancelledLoaderDoesNotFailTheOtherWaiters() throws Exception {
+        ProductPriceCache cache = cache();
+        hangFirstCall = true;
+
+        // Order 1 loads the price; the product service hangs until the order's lookups are cancelled
+        Future<Double> cancelled = orders.submit(() -> cache.getUnitPrice(PRODUCT_ID, "token"));
+        assertTrue(firstCallStarted.await(5, TimeUnit.SECONDS));
+
+        // Order 2 asks for the same product and waits for order 1's load
+        Future<Double> waiting = orders.submit(() -> cache.getUnitPrice(PRODUCT_ID, "token"));
+        Thread.sleep(100);
+        cancelled.cancel(true);
+
+        assertEquals(PRICE, waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+        assertEquals(PRICE, cache.getUnitPrice(PRODUCT_ID, "token"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void productServiceFailureIsNotCached() {
+        ProductPriceCache cache = cache();
+        failures.set(1);
+
+        assertThrows(IllegalStateException.class, () -> cache.getUnitPrice(PRODUCT_ID, "token"));
+        assertEquals(PRICE, cache.getUnitPrice(PRODUCT_ID, "token"));
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Cache without hedging in front of a product service stub driven by {@link #failures} and
+     * {@link #hangFirstCall}.
+     */
+    private ProductPriceCache cache() {
+        ProductClient productClient = new ProductClient(null, null) {
+            @Override
+            public Double getUnitPrice(Long productId, String token) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("product service unavailable");
+                }
+                if (calls.getAndIncrement() == 0 && hangFirstCall) {
+                    firstCallStarted.countDown();
+                    try {
+                        Thread.sleep(Long.MAX_VALUE);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while loading the price", e);
+                    }
+                }
+                return PRICE;
+            }
+        };
+        ProductPriceHedger hedger = new ProductPriceHedger(productClient, new SimpleAsyncTaskExecutor(),
+                new SimpleMeterRegistry(), false, 0.95, Duration.ofMillis(200), Duration.ofMillis(20), 1024, 5);
+        return new ProductPriceCache(hedger, new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 100);
+    }
+}
@@ -0,0 +1,163 @@
+package com.owr.order_service.service.idempotency;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.result.UpdateResult;
+import com.owr.order_service.dto.response.OrderResponse;
+import com.owr.order_service.model.IdempotencyRecord;
+import com.owr.order_service.model.Status;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/*=================================================================================
+ * Project: order-service
+ * File: IdempotencyStoreTest
+ * Created by: Ochwada
+ * Created on: 10, 10/17/2026, 11:40 PM
+ * Description: Takeover of an expired idempotency lock and retried completion writes, against an embedded mongod.
+ =================================================================================*/
+class IdempotencyStoreTest {
+
+    private static final String KEY = "customer-1:key-1";
+    private static final String REQUEST = "{\"items\":[]}";
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    private IdempotencyStore slow;
+    private IdempotencyStore successor;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V7_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        client = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "idempotency-test");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        client.close();
+        mongod.close();
+    }
+
+    @BeforeEach
+    void newInstances() {
+        mongoTemplate.remove(new Query(), IdempotencyRecord.class);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        slow = new IdempotencyStore(mongoTemplate, objectMapper, Duration.ofHours(1), Duration.ofSeconds(30), 100);
+        successor = new IdempotencyStore(mongoTemplate, objectMapper, Duration.ofHours(1), Duration.ofSeconds(30), 100);
+    }
+
+    @Test
+    void lateCompletionDoesNotOverwriteTheSuccessor() {
+        OrderResponse late = slow.execute(KEY, REQUEST, () -> {
+            expireLock();
+            successor.execute(KEY, REQUEST, () -> response("order-2"));
+            return response("order-1");
+        });
+
+        assertEquals("order-1", late.id());
+        assertEquals("order-2", stored().getResponse().id());
+        assertEquals(IdempotencyRecord.State.COMPLETED, stored().getState());
+    }
+
+    @Test
+    void lateFailureDoesNotReleaseTheSuccessorsClaim() {
+        assertThrows(IllegalStateException.class, () -> slow.execute(KEY, REQUEST, () -> {
+            // Another instance takes the expired key over and is still running it
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(KEY)),
+                    new Update().set("lockedUntil", LocalDateTime.now().plusSeconds(30)).set("owner", "successor"),
+                    IdempotencyRecord.class
+            );
+            throw new IllegalStateException("inventory unavailable");
+        }));
+
+        IdempotencyRecord record = stored();
+        assertNotNull(record, "The successor's claim was released");
+        assertEquals("successor", record.getOwner());
+    }
+
+    @Test
+    void failedCompletionWriteIsRetried() {
+        FlakyMongoTemplate flaky = new FlakyMongoTemplate(2);
+        IdempotencyStore store = new IdempotencyStore(flaky, new ObjectMapper().registerModule(new JavaTimeModule()),
+                Duration.ofHours(1), Duration.ofSeconds(30), 100);
+
+        store.execute(KEY, REQUEST, () -> response("order-1"));
+
+        assertEquals(0, flaky.failuresLeft);
+        assertEquals(IdempotencyRecord.State.COMPLETED, stored().getState());
+        assertEquals("order-1", stored().getResponse().id());
+    }
+
+    //=================== Helper Functions ===============================
+
+    /**
+     * Fails the first updates with a transient error, like a primary stepping down right after the order was saved.
+     */
+    private static final class FlakyMongoTemplate extends MongoTemplate {
+
+        private int failuresLeft;
+
+        FlakyMongoTemplate(int failures) {
+            super(client, "idempotency-test");
+            this.failuresLeft = failures;
+        }
+
+        @Override
+        public UpdateResult updateFirst(Query query, UpdateDefinition update, Class<?> entityClass) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new DataAccessResourceFailureException("not primary");
+            }
+            return super.updateFirst(query, update, entityClass);
+        }
+    }
+
+    /**
+     * Makes the running claim look abandoned, as if its executor had stalled past the lock timeout.
+     */
+    private static void expireLock() {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(KEY)),
+                new Update().set("lockedUntil", LocalDateTime.now().minusSeconds(1)),
+                IdempotencyRecord.class
+        );
+    }
+
+    private static IdempotencyRecord stored() {
+        return mongoTemplate.findById(KEY, IdempotencyRecord.class);
+    }
+
+    private static OrderResponse response(String orderId) {
+        return new OrderResponse(orderId, LocalDateTime.now(), "customer-1", List.of(), Status.PENDING, 0.0, null);
+    }
+    //====================================================================
+}